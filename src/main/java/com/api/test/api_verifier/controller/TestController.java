@@ -1,5 +1,6 @@
 package com.api.test.api_verifier.controller;
 
+import com.api.test.api_verifier.model.RunOptions;
 import com.api.test.api_verifier.service.ReportService;
 import com.api.test.api_verifier.service.ResultStorage;
 import com.api.test.api_verifier.service.RunAllService;
@@ -33,10 +34,12 @@ public class TestController {
 
     @PostMapping("/runAll")
     public ResponseEntity<?> runAllTests(@RequestParam("headersFile") MultipartFile headersFile,
-                                         @RequestParam("testFiles") MultipartFile[] testFiles, @RequestParam("csvRows") String csvRowsJson) {
+                                         @RequestParam("testFiles") MultipartFile[] testFiles, @RequestParam("csvRows") String csvRowsJson,
+                                         @RequestParam(value = "runOptions", required = false) String runOptionsJson) {
 
         try {
-            Map<String, Object> result = runAllService.runAllTests(headersFile, testFiles);
+            RunOptions options = RunOptions.parse(runOptionsJson);
+            Map<String, Object> result = runAllService.runAllTests(headersFile, testFiles, options);
             resultStorage.store(result);
 
             @SuppressWarnings("unchecked")
@@ -56,6 +59,13 @@ public class TestController {
         }
     }
 
+    @PostMapping("/runs/{runId}/cancel")
+    public ResponseEntity<?> cancelRun(@PathVariable String runId) {
+        if (!runAllService.cancelRun(runId))
+            return ResponseEntity.status(404).body(Map.of("error", "No active run with id " + runId));
+        return ResponseEntity.ok(Map.of("runId", runId, "cancelled", true));
+    }
+
     @PostMapping("/validateCookie")
     public ResponseEntity<Map<String, Object>> validateCookieApi(
             @RequestBody Map<String, Object> row
@@ -0,0 +1,110 @@
+package com.api.test.api_verifier.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class AdaptiveLimit {
+
+    private static final int MAX_HISTORY = 500;
+    private static final double BACKOFF_RATIO = 0.7;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final int WINDOW = 32;
+    private static final double BASELINE_SMOOTHING = 0.1;
+
+    private final ArrayDeque<Map<String, Object>> history = new ArrayDeque<>();
+
+    private int ceiling;
+    private double limit;
+    private final long[] window = new long[WINDOW];
+    private int windowSamples;
+    private double baselineNanos;
+    private boolean congested;
+    private long lastDecreaseNanos;
+
+    AdaptiveLimit(int ceiling) {
+        this.ceiling = Math.max(1, ceiling);
+        this.limit = this.ceiling;
+        record("initial");
+    }
+
+    int current() {
+        return (int) limit;
+    }
+
+    int ceiling() {
+        return ceiling;
+    }
+
+    void setCeiling(int ceiling) {
+        this.ceiling = Math.max(1, ceiling);
+        if (limit > this.ceiling) {
+            limit = this.ceiling;
+            record("ceiling");
+        }
+    }
+
+    void onSuccess(long latencyNanos, int inFlight) {
+        window[windowSamples++] = latencyNanos;
+        if (windowSamples == WINDOW) {
+            windowSamples = 0;
+            long median = windowMedian();
+            congested = baselineNanos > 0 && median > baselineNanos * LATENCY_TOLERANCE;
+            baselineNanos = baselineNanos == 0 ? median
+                    : baselineNanos + (median - baselineNanos) * BASELINE_SMOOTHING;
+            if (congested) {
+                decrease("latency", median);
+                return;
+            }
+        }
+
+        if (congested || inFlight < limit / 2 || limit >= ceiling)
+            return;
+
+        int before = current();
+        limit = Math.min(ceiling, limit + 1.0 / limit);
+        if (current() != before)
+            record("increase");
+    }
+
+    void onOverload(String reason, long latencyNanos) {
+        decrease(reason, latencyNanos);
+    }
+
+    List<Map<String, Object>> history(long sinceMillis) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (Map<String, Object> event : history) {
+            if (((Long) event.get("at")) >= sinceMillis)
+                out.add(event);
+        }
+        return out;
+    }
+
+    private void decrease(String reason, long latencyNanos) {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < Math.max(latencyNanos, 1))
+            return;
+        lastDecreaseNanos = now;
+        limit = Math.max(1, limit * BACKOFF_RATIO);
+        record(reason);
+    }
+
+    private long windowMedian() {
+        long[] sorted = window.clone();
+        Arrays.sort(sorted);
+        return sorted[WINDOW / 2];
+    }
+
+    private void record(String reason) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("at", System.currentTimeMillis());
+        event.put("limit", current());
+        event.put("reason", reason);
+        history.addLast(event);
+        if (history.size() > MAX_HISTORY)
+            history.removeFirst();
+    }
+}
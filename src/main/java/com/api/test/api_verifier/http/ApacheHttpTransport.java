@@ -0,0 +1,345 @@
+package com.api.test.api_verifier.http;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.methods.AbstractBinResponseConsumer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EndpointDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.nio.AsyncRequestProducer;
+import org.apache.hc.core5.http.nio.StreamChannel;
+import org.apache.hc.core5.http.nio.entity.AbstractBinAsyncEntityProducer;
+import org.apache.hc.core5.http.nio.entity.AsyncEntityProducers;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ApacheHttpTransport implements HttpTransport {
+
+    private static final int PREVIEW_BYTES = 8192;
+
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    private final CloseableHttpAsyncClient client;
+    private final ScheduledThreadPoolExecutor timeouts;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong reusedConnections = new AtomicLong();
+    private final AtomicLong newConnections = new AtomicLong();
+
+    public ApacheHttpTransport(long connectTimeoutMs, int maxConnectionsPerRoute, int maxConnectionsTotal,
+                               long keepAliveSeconds) {
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setMaxConnTotal(maxConnectionsTotal)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .build())
+                .build();
+
+        this.client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSeconds))
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+        this.client.start();
+
+        this.timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "apache-exchange-timeout");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public String name() {
+        return "apache";
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request, CompletableFuture<?> abort) {
+        throw new UnsupportedOperationException("The Apache transport has no blocking mode");
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        AsyncRequestBuilder builder = AsyncRequestBuilder.create(request.getMethod()).setUri(request.getUri());
+        if (request.getHeaders() != null) {
+            request.getHeaders().forEach(builder::addHeader);
+        }
+        RequestBody body = request.getBody();
+        if (body != null) {
+            if (body.getText() != null)
+                builder.setEntity(AsyncEntityProducers.create(body.getText(), ContentType.APPLICATION_JSON));
+            else if (!body.isTemplate())
+                builder.setEntity(AsyncEntityProducers.create(body.getFile().toFile(), ContentType.APPLICATION_JSON));
+            else
+                builder.setEntity(new StreamingEntityProducer(body));
+        }
+        AsyncRequestProducer producer = builder.build();
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofMilliseconds(request.getTimeoutMs()))
+                .build());
+
+        CompletableFuture<TransportResponse> result = new CompletableFuture<>();
+        requests.incrementAndGet();
+        Future<TransportResponse> exchange = client.execute(producer, new CappedConsumer(request.getMaxResponseBytes(), System.nanoTime()), context,
+                new FutureCallback<TransportResponse>() {
+                    @Override
+                    public void completed(TransportResponse response) {
+                        countConnection(context);
+                        result.complete(response);
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        if (ex instanceof ResponseTooLargeException tooLarge) {
+                            result.complete(tooLarge.response);
+                        } else {
+                            result.completeExceptionally(ex);
+                        }
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.completeExceptionally(new CancellationException("Request cancelled"));
+                    }
+                });
+        ScheduledFuture<?> timeout = timeouts.schedule(
+                () -> result.completeExceptionally(new HttpTimeoutException("request timed out")),
+                request.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        result.whenComplete((r, e) -> {
+            timeout.cancel(false);
+            if (e != null)
+                exchange.cancel(true);
+        });
+        return result;
+    }
+
+    @Override
+    public void configureRoute(URI baseUri, int maxConnections) {
+        boolean secure = "https".equalsIgnoreCase(baseUri.getScheme());
+        int port = baseUri.getPort() != -1 ? baseUri.getPort() : secure ? 443 : 80;
+        HttpHost target = new HttpHost(baseUri.getScheme(), baseUri.getHost(), port);
+        connectionManager.setMaxPerRoute(new HttpRoute(target, null, secure), Math.max(1, maxConnections));
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        PoolStats pool = connectionManager.getTotalStats();
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("transport", name());
+        m.put("requests", requests.get());
+        m.put("reusedConnections", reusedConnections.get());
+        m.put("newConnections", newConnections.get());
+        m.put("leasedConnections", pool.getLeased());
+        m.put("availableConnections", pool.getAvailable());
+        m.put("pendingConnections", pool.getPending());
+        m.put("maxConnections", pool.getMax());
+        return m;
+    }
+
+    @Override
+    public void close() {
+        timeouts.shutdownNow();
+        client.close(CloseMode.GRACEFUL);
+    }
+
+    private void countConnection(HttpClientContext context) {
+        EndpointDetails endpoint = context.getEndpointDetails();
+        if (endpoint == null)
+            return;
+        if (endpoint.getRequestCount() > 1)
+            reusedConnections.incrementAndGet();
+        else
+            newConnections.incrementAndGet();
+    }
+
+    private static final class ResponseTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient TransportResponse response;
+
+        private ResponseTooLargeException(TransportResponse response) {
+            super("Response body exceeded " + response.getBody().getLimit() + " bytes");
+            this.response = response;
+        }
+    }
+
+    private static final class StreamingEntityProducer extends AbstractBinAsyncEntityProducer {
+        private final RequestBody body;
+        private final byte[] buffer = new byte[8192];
+        private InputStream in;
+        private ByteBuffer pending;
+
+        private StreamingEntityProducer(RequestBody body) {
+            super(8192, ContentType.APPLICATION_JSON);
+            this.body = body;
+        }
+
+        @Override
+        protected int availableData() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        protected void produceData(StreamChannel<ByteBuffer> channel) throws IOException {
+            if (in == null)
+                in = body.open();
+            while (true) {
+                if (pending == null || !pending.hasRemaining()) {
+                    int n = in.read(buffer);
+                    if (n == -1) {
+                        closeStream();
+                        channel.endStream();
+                        return;
+                    }
+                    pending = ByteBuffer.wrap(buffer, 0, n);
+                }
+                channel.write(pending);
+                if (pending.hasRemaining())
+                    return;
+            }
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public void failed(Exception cause) {
+            closeStream();
+        }
+
+        @Override
+        public void releaseResources() {
+            closeStream();
+            pending = null;
+        }
+
+        private void closeStream() {
+            if (in == null)
+                return;
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+            in = null;
+        }
+    }
+
+    private static final class CappedConsumer extends AbstractBinResponseConsumer<TransportResponse> {
+        private final long maxBytes;
+        private final long startNanos;
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private long headersAtNanos;
+        private int statusCode;
+        private Map<String, List<String>> headers;
+        private long size;
+
+        private CappedConsumer(long maxBytes, long startNanos) {
+            this.maxBytes = maxBytes;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        protected void start(HttpResponse response, ContentType contentType) throws IOException {
+            headersAtNanos = System.nanoTime();
+            statusCode = response.getCode();
+            headers = new LinkedHashMap<>();
+            for (Header h : response.getHeaders()) {
+                headers.computeIfAbsent(h.getName(), k -> new ArrayList<>()).add(h.getValue());
+            }
+
+            long declaredLength = declaredLength(response);
+            if (maxBytes > 0 && declaredLength > maxBytes) {
+                throw new ResponseTooLargeException(new TransportResponse(statusCode, headers,
+                        new CappedBody(List.of(), declaredLength, maxBytes, true), timing()));
+            }
+        }
+
+        private static long declaredLength(HttpResponse response) {
+            Header header = response.getFirstHeader("Content-Length");
+            if (header == null)
+                return -1;
+            try {
+                return Long.parseLong(header.getValue().trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        protected int capacityIncrement() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+            int n = src.remaining();
+            size += n;
+            if (maxBytes > 0 && size > maxBytes) {
+                List<ByteBuffer> preview = new ArrayList<>();
+                long kept = 0;
+                for (ByteBuffer chunk : chunks) {
+                    if (kept >= PREVIEW_BYTES)
+                        break;
+                    preview.add(chunk);
+                    kept += chunk.remaining();
+                }
+                chunks.clear();
+                throw new ResponseTooLargeException(new TransportResponse(statusCode, headers,
+                        new CappedBody(preview, size, maxBytes, true), timing()));
+            }
+            ByteBuffer copy = ByteBuffer.allocate(n);
+            copy.put(src);
+            copy.flip();
+            chunks.add(copy);
+        }
+
+        @Override
+        protected TransportResponse buildResult() {
+            return new TransportResponse(statusCode, headers, new CappedBody(chunks, size, maxBytes, false), timing());
+        }
+
+        private TransportTiming timing() {
+            return new TransportTiming(headersAtNanos - startNanos, System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public void releaseResources() {
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.api.test.api_verifier.http;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+public class ArchiveWriter implements AutoCloseable {
+
+    private final Path file;
+    private final DataOutputStream out;
+    private long records;
+    private long failures;
+    private IOException error;
+
+    public ArchiveWriter(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        this.file = file;
+        this.out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+                65536), 65536));
+        out.writeInt(ResponseArchive.MAGIC);
+        out.writeInt(ResponseArchive.VERSION);
+    }
+
+    public synchronized void record(TransportRequest request, TransportResponse response) {
+        if (error != null)
+            return;
+        try {
+            CappedBody body = response.getBody();
+            out.writeByte(ResponseArchive.RESPONSE);
+            ResponseArchive.writeString(out, ResponseArchive.key(request));
+            out.writeInt(response.getStatusCode());
+
+            Map<String, List<String>> headers = response.getHeaders() != null ? response.getHeaders() : Map.of();
+            out.writeInt(headers.size());
+            for (Map.Entry<String, List<String>> h : headers.entrySet()) {
+                ResponseArchive.writeString(out, h.getKey());
+                out.writeInt(h.getValue().size());
+                for (String v : h.getValue())
+                    ResponseArchive.writeString(out, v);
+            }
+
+            out.writeLong(body.getSize());
+            out.writeLong(body.getLimit());
+            out.writeBoolean(body.isOversized());
+            out.writeLong(body.retainedBytes());
+            try (InputStream in = body.openStream()) {
+                in.transferTo(out);
+            }
+
+            TransportTiming timing = response.getTiming();
+            out.writeLong(timing != null ? timing.getFirstByteNanos() : 0);
+            out.writeLong(timing != null ? timing.getTotalNanos() : 0);
+            records++;
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    public synchronized void recordFailure(TransportRequest request, Throwable failure) {
+        if (error != null)
+            return;
+        try {
+            out.writeByte(ResponseArchive.FAILURE);
+            ResponseArchive.writeString(out, ResponseArchive.key(request));
+            ResponseArchive.writeString(out, String.valueOf(failure.getMessage()));
+            failures++;
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("mode", "record");
+        m.put("file", file.toString());
+        m.put("responses", records);
+        m.put("failures", failures);
+        m.put("error", error != null ? error.getMessage() : null);
+        return m;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            if (error == null)
+                error = e;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.api.test.api_verifier.http;
+
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+
+public class CappedBody {
+
+    private final List<ByteBuffer> chunks;
+    private final long size;
+    private final long limit;
+    private final boolean oversized;
+
+    public CappedBody(List<ByteBuffer> chunks, long size, long limit, boolean oversized) {
+        this.chunks = List.copyOf(chunks);
+        this.size = size;
+        this.limit = limit;
+        this.oversized = oversized;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    public boolean isOversized() {
+        return oversized;
+    }
+
+    public long retainedBytes() {
+        long n = 0;
+        for (ByteBuffer chunk : chunks)
+            n += chunk.remaining();
+        return n;
+    }
+
+    public InputStream openStream() {
+        Iterator<ByteBuffer> it = chunks.iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return it.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return new ByteBufferInputStream(it.next().duplicate());
+            }
+        });
+    }
+
+    public String preview(int maxBytes) {
+        byte[] out = new byte[(int) Math.min(maxBytes, Math.min(size, Integer.MAX_VALUE))];
+        int pos = 0;
+        for (ByteBuffer chunk : chunks) {
+            if (pos >= out.length)
+                break;
+            ByteBuffer b = chunk.duplicate();
+            int n = Math.min(b.remaining(), out.length - pos);
+            b.get(out, pos, n);
+            pos += n;
+        }
+        String text = new String(out, 0, pos, StandardCharsets.UTF_8);
+        return size > pos ? text + "…" : text;
+    }
+
+    public static CappedBody empty() {
+        return new CappedBody(Collections.emptyList(), 0, 0, false);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining())
+                return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.api.test.api_verifier.http;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+public class CappedBodySubscriber implements HttpResponse.BodySubscriber<CappedBody> {
+
+    private static final int PREVIEW_BYTES = 8192;
+
+    private final long maxBytes;
+    private final long declaredLength;
+    private final CompletableFuture<CappedBody> result = new CompletableFuture<>();
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private Flow.Subscription subscription;
+    private long size;
+
+    public CappedBodySubscriber(long maxBytes, long declaredLength) {
+        this.maxBytes = maxBytes;
+        this.declaredLength = declaredLength;
+    }
+
+    public static HttpResponse.BodyHandler<CappedBody> handler(long maxBytes) {
+        return info -> new CappedBodySubscriber(maxBytes, info.headers().firstValueAsLong("Content-Length").orElse(-1));
+    }
+
+    @Override
+    public CompletionStage<CappedBody> getBody() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (maxBytes > 0 && declaredLength > maxBytes) {
+            subscription.cancel();
+            result.complete(new CappedBody(List.of(), declaredLength, maxBytes, true));
+            return;
+        }
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        if (result.isDone())
+            return;
+        for (ByteBuffer item : items) {
+            size += item.remaining();
+            if (maxBytes > 0 && size > maxBytes) {
+                subscription.cancel();
+                result.complete(new CappedBody(previewChunks(), size, maxBytes, true));
+                chunks.clear();
+                return;
+            }
+            chunks.add(item);
+        }
+    }
+
+    private List<ByteBuffer> previewChunks() {
+        List<ByteBuffer> preview = new ArrayList<>();
+        long kept = 0;
+        for (ByteBuffer chunk : chunks) {
+            if (kept >= PREVIEW_BYTES)
+                break;
+            preview.add(chunk);
+            kept += chunk.remaining();
+        }
+        return preview;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(new CappedBody(chunks, size, maxBytes, false));
+    }
+}
@@ -0,0 +1,103 @@
+package com.api.test.api_verifier.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long cooldownNanos;
+    private final int halfOpenProbes;
+
+    public static final long REJECTED = -1;
+    public static final long NOT_A_PROBE = 0;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int probesInFlight;
+    private long halfOpenEpoch;
+    private long openedAtNanos;
+    private int timesOpened;
+    private String lastFailure;
+
+    public CircuitBreaker(String host, int failureThreshold, long cooldownMs, int halfOpenProbes) {
+        this.host = host;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, cooldownMs));
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    }
+
+    public synchronized boolean tryAcquire() {
+        return acquire() != REJECTED;
+    }
+
+    public synchronized long acquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < cooldownNanos)
+                return REJECTED;
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            halfOpenEpoch++;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes)
+                return REJECTED;
+            probesInFlight++;
+            return halfOpenEpoch;
+        }
+        return NOT_A_PROBE;
+    }
+
+    public synchronized void releaseProbe(long probe) {
+        if (probe > NOT_A_PROBE && state == State.HALF_OPEN && probe == halfOpenEpoch && probesInFlight > 0)
+            probesInFlight--;
+    }
+
+    public synchronized boolean isRejecting() {
+        return state == State.OPEN && System.nanoTime() - openedAtNanos < cooldownNanos
+                || state == State.HALF_OPEN && probesInFlight >= halfOpenProbes;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.OPEN)
+            return;
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized boolean onFailure(String message) {
+        lastFailure = message;
+        if (state == State.OPEN)
+            return false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            timesOpened++;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized String reason() {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(Math.max(0, cooldownNanos - (System.nanoTime() - openedAtNanos)));
+        return "Circuit open for " + host + " after " + consecutiveFailures + " consecutive transport failure(s)"
+                + (lastFailure != null ? " (last: " + lastFailure + ")" : "")
+                + "; next probe in " + remainingMs + " ms";
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("state", state.name());
+        m.put("consecutiveFailures", consecutiveFailures);
+        m.put("timesOpened", timesOpened);
+        m.put("lastFailure", lastFailure);
+        return m;
+    }
+}
@@ -0,0 +1,10 @@
+package com.api.test.api_verifier.http;
+
+public class CircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,55 @@
+package com.api.test.api_verifier.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public final class ContentDecoding {
+
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private ContentDecoding() {
+    }
+
+    public static String normalize(String contentEncoding) {
+        if (contentEncoding == null)
+            return null;
+        String enc = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        return enc.isEmpty() || enc.equals("identity") ? null : enc;
+    }
+
+    public static boolean isSupported(String encoding) {
+        return encoding == null || encoding.equals("gzip") || encoding.equals("x-gzip") || encoding.equals("deflate");
+    }
+
+    public static InputStream decode(InputStream raw, String encoding) throws IOException {
+        if (encoding == null)
+            return raw;
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(raw, 8192);
+            case "deflate":
+                return inflate(raw);
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + encoding);
+        }
+    }
+
+    private static InputStream inflate(InputStream raw) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(raw, 2);
+        int b0 = in.read();
+        int b1 = in.read();
+        if (b1 != -1)
+            in.unread(b1);
+        if (b0 != -1)
+            in.unread(b0);
+
+        boolean zlibWrapped = b0 != -1 && b1 != -1 && (b0 & 0x0F) == 8 && ((b0 << 8) | b1) % 31 == 0;
+        return new InflaterInputStream(in, new Inflater(!zlibWrapped), 8192);
+    }
+}
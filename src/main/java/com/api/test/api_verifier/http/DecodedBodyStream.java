@@ -0,0 +1,86 @@
+package com.api.test.api_verifier.http;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class DecodedBodyStream extends FilterInputStream {
+
+    private final long limit;
+    private final byte[] preview;
+    private int kept;
+    private long count;
+    private boolean overLimit;
+
+    public DecodedBodyStream(InputStream in, long limit, int previewBytes) {
+        super(in);
+        this.limit = limit;
+        this.preview = new byte[Math.max(0, previewBytes)];
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return n == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (overLimit)
+            throw new IOException("Decoded body exceeded " + limit + " bytes");
+        int n = in.read(b, off, len);
+        if (n <= 0)
+            return n;
+
+        int copy = Math.min(n, preview.length - kept);
+        if (copy > 0) {
+            System.arraycopy(b, off, preview, kept, copy);
+            kept += copy;
+        }
+        count += n;
+        if (limit > 0 && count > limit) {
+            overLimit = true;
+            throw new IOException("Decoded body exceeded " + limit + " bytes");
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buf = new byte[(int) Math.min(8192, Math.max(0, n))];
+        long skipped = 0;
+        while (skipped < n) {
+            int r = read(buf, 0, (int) Math.min(buf.length, n - skipped));
+            if (r == -1)
+                break;
+            skipped += r;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public void drain() throws IOException {
+        byte[] buf = new byte[8192];
+        while (!overLimit && read(buf, 0, buf.length) != -1) {
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public boolean isOverLimit() {
+        return overLimit;
+    }
+
+    public String preview() {
+        String text = new String(preview, 0, kept, StandardCharsets.UTF_8);
+        return count > kept ? text + "…" : text;
+    }
+}
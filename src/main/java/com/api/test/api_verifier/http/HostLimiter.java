@@ -0,0 +1,183 @@
+package com.api.test.api_verifier.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class HostLimiter {
+
+    private final String host;
+    private final ScheduledExecutorService timer;
+    private final Object lock = new Object();
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    private int maxInFlight;
+    private double requestsPerSecond;
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+    private int inFlight;
+    private boolean drainScheduled;
+    private long pausedUntilNanos;
+    private final AdaptiveLimit adaptive;
+
+    public HostLimiter(String host, int maxInFlight, double requestsPerSecond, boolean adaptive,
+                       ScheduledExecutorService timer) {
+        this.host = host;
+        this.timer = timer;
+        this.adaptive = adaptive ? new AdaptiveLimit(maxInFlight) : null;
+        configure(maxInFlight, requestsPerSecond);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void configure(int maxInFlight, double requestsPerSecond) {
+        synchronized (lock) {
+            this.maxInFlight = Math.max(1, maxInFlight);
+            this.requestsPerSecond = Math.max(0, requestsPerSecond);
+            this.tokens = bucketSize();
+            this.lastRefillNanos = System.nanoTime();
+            if (adaptive != null)
+                adaptive.setCeiling(this.maxInFlight);
+        }
+        drain();
+    }
+
+    public void override(Integer maxInFlight, Double requestsPerSecond) {
+        int inFlightLimit;
+        double rate;
+        synchronized (lock) {
+            inFlightLimit = maxInFlight != null ? maxInFlight : this.maxInFlight;
+            rate = requestsPerSecond != null ? requestsPerSecond : this.requestsPerSecond;
+        }
+        configure(inFlightLimit, rate);
+    }
+
+    public CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        synchronized (lock) {
+            waiters.addLast(permit);
+        }
+        drain();
+        return permit;
+    }
+
+    public void rejectQueued(Throwable reason) {
+        List<CompletableFuture<Void>> rejected;
+        synchronized (lock) {
+            rejected = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        for (CompletableFuture<Void> permit : rejected) {
+            permit.completeExceptionally(reason);
+        }
+    }
+
+    public void release() {
+        synchronized (lock) {
+            inFlight--;
+        }
+        drain();
+    }
+
+    public void onResponse(int statusCode, long latencyNanos, long retryAfterNanos) {
+        synchronized (lock) {
+            if (retryAfterNanos > 0) {
+                pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + retryAfterNanos);
+            }
+            if (adaptive != null) {
+                if (statusCode == 429 || statusCode == 503 || retryAfterNanos > 0) {
+                    adaptive.onOverload(retryAfterNanos > 0 ? "retry-after" : String.valueOf(statusCode),
+                            latencyNanos);
+                } else {
+                    adaptive.onSuccess(latencyNanos, inFlight);
+                }
+            }
+        }
+        drain();
+    }
+
+    public void onError(long latencyNanos) {
+        synchronized (lock) {
+            if (adaptive != null)
+                adaptive.onOverload("error", latencyNanos);
+        }
+    }
+
+    public Map<String, Object> snapshot(long sinceMillis) {
+        synchronized (lock) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("maxInFlight", maxInFlight);
+            m.put("currentLimit", effectiveLimit());
+            m.put("requestsPerSecond", requestsPerSecond > 0 ? requestsPerSecond : null);
+            m.put("inFlight", inFlight);
+            m.put("queued", waiters.size());
+            if (adaptive != null)
+                m.put("limitHistory", adaptive.history(sinceMillis));
+            return m;
+        }
+    }
+
+    private int effectiveLimit() {
+        return adaptive != null ? Math.min(adaptive.current(), maxInFlight) : maxInFlight;
+    }
+
+    private void drain() {
+        List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (lock) {
+            refill();
+            long pausedFor = pausedUntilNanos - System.nanoTime();
+            if (pausedFor > 0 && !waiters.isEmpty()) {
+                scheduleDrain(pausedFor);
+            } else {
+                while (!waiters.isEmpty() && inFlight < effectiveLimit()) {
+                    if (requestsPerSecond > 0 && tokens < 1) {
+                        scheduleDrain((long) ((1 - tokens) / requestsPerSecond * 1_000_000_000L));
+                        break;
+                    }
+                    CompletableFuture<Void> next = waiters.pollFirst();
+                    if (next.isDone())
+                        continue;
+                    if (requestsPerSecond > 0)
+                        tokens -= 1;
+                    inFlight++;
+                    granted.add(next);
+                }
+            }
+        }
+        for (CompletableFuture<Void> permit : granted) {
+            if (!permit.complete(null))
+                release();
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        if (requestsPerSecond > 0) {
+            tokens = Math.min(bucketSize(), tokens + (now - lastRefillNanos) / 1_000_000_000.0 * requestsPerSecond);
+        }
+        lastRefillNanos = now;
+    }
+
+    private double bucketSize() {
+        return Math.max(1, requestsPerSecond);
+    }
+
+    private void scheduleDrain(long delayNanos) {
+        if (drainScheduled)
+            return;
+        drainScheduled = true;
+        timer.schedule(() -> {
+            synchronized (lock) {
+                drainScheduled = false;
+            }
+            drain();
+        }, Math.max(delayNanos, 1_000_000L), TimeUnit.NANOSECONDS);
+    }
+}
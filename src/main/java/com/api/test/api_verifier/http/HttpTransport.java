@@ -0,0 +1,33 @@
+package com.api.test.api_verifier.http;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface HttpTransport extends AutoCloseable {
+
+    String name();
+
+    CompletableFuture<TransportResponse> send(TransportRequest request);
+
+    TransportResponse execute(TransportRequest request, CompletableFuture<?> abort)
+            throws IOException, InterruptedException;
+
+    default void configureRoute(URI baseUri, int maxConnections) {
+    }
+
+    default CompletableFuture<Void> prewarm(URI baseUri, int connections, long timeoutMs) {
+        CompletableFuture<?>[] warmups = new CompletableFuture[connections];
+        for (int i = 0; i < connections; i++) {
+            warmups[i] = send(new TransportRequest(baseUri, "HEAD", Map.of(), null, timeoutMs, 0))
+                    .exceptionally(e -> null);
+        }
+        return CompletableFuture.allOf(warmups);
+    }
+
+    Map<String, Object> stats();
+
+    @Override
+    void close();
+}
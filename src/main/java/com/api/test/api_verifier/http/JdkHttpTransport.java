@@ -0,0 +1,168 @@
+package com.api.test.api_verifier.http;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JdkHttpTransport implements HttpTransport {
+
+    private final HttpClient client;
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final AtomicLong requests = new AtomicLong();
+
+    public JdkHttpTransport(long connectTimeoutMs) {
+        this(connectTimeoutMs, null);
+    }
+
+    public JdkHttpTransport(long connectTimeoutMs, Executor executor) {
+        HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(connectTimeoutMs));
+        if (executor != null)
+            builder.executor(executor);
+        this.client = builder.build();
+        this.timeouts = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "jdk-exchange-timeout");
+            t.setDaemon(true);
+            return t;
+        });
+        this.timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public String name() {
+        return "jdk";
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        HttpRequest httpRequest;
+        try {
+            httpRequest = build(request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpResponse.BodyHandler<CappedBody> capped = CappedBodySubscriber.handler(request.getMaxResponseBytes());
+        long start = System.nanoTime();
+        long[] headersAt = {0};
+
+        requests.incrementAndGet();
+        CompletableFuture<HttpResponse<CappedBody>> exchange = client.sendAsync(httpRequest, info -> {
+            headersAt[0] = System.nanoTime();
+            return capped.apply(info);
+        });
+        CompletableFuture<TransportResponse> result = exchange
+                .thenApply(r -> new TransportResponse(r.statusCode(), r.headers().map(), r.body(),
+                        new TransportTiming(headersAt[0] - start, System.nanoTime() - start)));
+        ScheduledFuture<?> timeout = timeouts.schedule(
+                () -> result.completeExceptionally(new HttpTimeoutException("request timed out")),
+                request.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        result.whenComplete((r, e) -> {
+            timeout.cancel(false);
+            if (e != null)
+                exchange.cancel(true);
+        });
+        return result;
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request, CompletableFuture<?> abort)
+            throws IOException, InterruptedException {
+        HttpRequest httpRequest = build(request);
+        HttpResponse.BodyHandler<CappedBody> capped = CappedBodySubscriber.handler(request.getMaxResponseBytes());
+        long start = System.nanoTime();
+        long[] headersAt = {0};
+
+        Thread caller = Thread.currentThread();
+        boolean[] sending = {true};
+        ScheduledFuture<?> timeout = timeouts.schedule(
+                () -> abort.completeExceptionally(new HttpTimeoutException("request timed out")),
+                request.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        abort.whenComplete((v, e) -> {
+            synchronized (sending) {
+                if (sending[0])
+                    caller.interrupt();
+            }
+        });
+
+        requests.incrementAndGet();
+        try {
+            HttpResponse<CappedBody> r = client.send(httpRequest, info -> {
+                headersAt[0] = System.nanoTime();
+                return capped.apply(info);
+            });
+            return new TransportResponse(r.statusCode(), r.headers().map(), r.body(),
+                    new TransportTiming(headersAt[0] - start, System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            Throwable reason = abort.handle((v, error) -> error).getNow(null);
+            if (reason instanceof CompletionException && reason.getCause() != null)
+                reason = reason.getCause();
+            if (reason instanceof IOException io)
+                throw io;
+            if (reason instanceof RuntimeException runtime)
+                throw runtime;
+            throw e;
+        } finally {
+            timeout.cancel(false);
+            synchronized (sending) {
+                sending[0] = false;
+            }
+            if (abort.isCompletedExceptionally())
+                Thread.interrupted();
+        }
+    }
+
+    private static HttpRequest build(TransportRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().uri(request.getUri())
+                .timeout(Duration.ofMillis(request.getTimeoutMs()))
+                .method(request.getMethod(), publisher(request.getBody()));
+        if (request.getHeaders() != null) {
+            request.getHeaders().forEach(builder::header);
+        }
+        return builder.build();
+    }
+
+    private static HttpRequest.BodyPublisher publisher(RequestBody body) throws IOException {
+        if (body == null)
+            return HttpRequest.BodyPublishers.noBody();
+        if (body.getText() != null)
+            return HttpRequest.BodyPublishers.ofString(body.getText());
+        if (!body.isTemplate())
+            return HttpRequest.BodyPublishers.ofFile(body.getFile());
+        return HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return body.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("transport", name());
+        m.put("requests", requests.get());
+        m.put("reusedConnections", null);
+        m.put("newConnections", null);
+        return m;
+    }
+
+    @Override
+    public void close() {
+        timeouts.shutdownNow();
+        client.shutdownNow();
+    }
+}
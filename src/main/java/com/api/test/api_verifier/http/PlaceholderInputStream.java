@@ -0,0 +1,92 @@
+package com.api.test.api_verifier.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class PlaceholderInputStream extends InputStream {
+
+    private static final int MAX_NAME_BYTES = 128;
+
+    private final PushbackInputStream in;
+    private final Map<String, ?> variables;
+    private byte[] pending = new byte[0];
+    private int pendingPos;
+
+    public PlaceholderInputStream(InputStream in, Map<String, ?> variables) {
+        this.in = new PushbackInputStream(in, 1);
+        this.variables = variables;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (pendingPos < pending.length)
+            return pending[pendingPos++] & 0xFF;
+
+        int b = in.read();
+        if (b != '{')
+            return b;
+
+        byte[] name = new byte[MAX_NAME_BYTES];
+        int len = 0;
+        int next;
+        while ((next = in.read()) != -1 && len < MAX_NAME_BYTES && isNameByte(next)) {
+            name[len++] = (byte) next;
+        }
+
+        String key = new String(name, 0, len, StandardCharsets.US_ASCII);
+        if (next == '}' && len > 0 && variables.containsKey(key)) {
+            byte[] value = String.valueOf(variables.get(key)).getBytes(StandardCharsets.UTF_8);
+            setPending(value, value.length);
+        } else {
+            if (next != -1)
+                in.unread(next);
+            setPending(name, len);
+            return '{';
+        }
+        return read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        int n = 0;
+        while (n < len) {
+            if (pendingPos < pending.length) {
+                int copy = Math.min(len - n, pending.length - pendingPos);
+                System.arraycopy(pending, pendingPos, b, off + n, copy);
+                pendingPos += copy;
+                n += copy;
+                continue;
+            }
+            int c = read();
+            if (c == -1)
+                return n == 0 ? -1 : n;
+            b[off + n++] = (byte) c;
+        }
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void setPending(byte[] bytes, int length) {
+        if (length != bytes.length) {
+            byte[] copy = new byte[length];
+            System.arraycopy(bytes, 0, copy, 0, length);
+            bytes = copy;
+        }
+        pending = bytes;
+        pendingPos = 0;
+    }
+
+    private static boolean isNameByte(int b) {
+        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' || b == '_' || b == '-'
+                || b == '.';
+    }
+}
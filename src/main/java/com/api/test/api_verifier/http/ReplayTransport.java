@@ -0,0 +1,100 @@
+package com.api.test.api_verifier.http;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReplayTransport implements HttpTransport {
+
+    private static final class Recorded {
+        private final TransportResponse response;
+        private final String failure;
+
+        private Recorded(TransportResponse response, String failure) {
+            this.response = response;
+            this.failure = failure;
+        }
+    }
+
+    private static final class Slot {
+        private final List<Recorded> entries = new ArrayList<>();
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Recorded take() {
+            int i = next.getAndIncrement();
+            return entries.get(Math.min(i, entries.size() - 1));
+        }
+    }
+
+    private final Path file;
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReplayTransport(Path file) throws IOException {
+        this.file = file;
+        ResponseArchive.read(file, (key, response, failure) ->
+                slots.computeIfAbsent(key, k -> new Slot()).entries.add(new Recorded(response, failure)));
+    }
+
+    @Override
+    public String name() {
+        return "replay";
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> send(TransportRequest request) {
+        Slot slot = slots.get(ResponseArchive.key(request));
+        if (slot == null) {
+            misses.incrementAndGet();
+            return CompletableFuture.failedFuture(new IOException("No archived response for "
+                    + request.getMethod() + " " + request.getUri()));
+        }
+        hits.incrementAndGet();
+        Recorded recorded = slot.take();
+        if (recorded.failure != null)
+            return CompletableFuture.failedFuture(new ConnectException("Replayed failure: " + recorded.failure));
+        return CompletableFuture.completedFuture(recorded.response);
+    }
+
+    @Override
+    public TransportResponse execute(TransportRequest request, CompletableFuture<?> abort) throws IOException {
+        try {
+            return send(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io)
+                throw io;
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> prewarm(URI baseUri, int connections, long timeoutMs) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("mode", "replay");
+        m.put("file", file.toString());
+        m.put("recordedKeys", slots.size());
+        m.put("hits", hits.get());
+        m.put("misses", misses.get());
+        return m;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,63 @@
+package com.api.test.api_verifier.http;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class RequestBody {
+
+    private final String text;
+    private final Path file;
+    private final Map<String, ?> variables;
+
+    private RequestBody(String text, Path file, Map<String, ?> variables) {
+        this.text = text;
+        this.file = file;
+        this.variables = variables;
+    }
+
+    public static RequestBody ofString(String text) {
+        return new RequestBody(text, null, null);
+    }
+
+    public static RequestBody ofFile(Path file) {
+        return new RequestBody(null, file, null);
+    }
+
+    public static RequestBody ofTemplateFile(Path file, Map<String, ?> variables) {
+        return new RequestBody(null, file, variables == null || variables.isEmpty() ? null
+                : Collections.unmodifiableMap(new HashMap<>(variables)));
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public boolean isTemplate() {
+        return variables != null;
+    }
+
+    public long contentLength() throws IOException {
+        if (text != null)
+            return text.getBytes(StandardCharsets.UTF_8).length;
+        return isTemplate() ? -1 : Files.size(file);
+    }
+
+    public InputStream open() throws IOException {
+        if (text != null)
+            return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 65536);
+        return isTemplate() ? new PlaceholderInputStream(in, variables) : in;
+    }
+}
@@ -0,0 +1,154 @@
+package com.api.test.api_verifier.http;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public final class ResponseArchive {
+
+    static final int MAGIC = 0x54514152;
+    static final int VERSION = 1;
+    static final byte RESPONSE = 1;
+    static final byte FAILURE = 2;
+
+    private static final String EXTENSION = ".tqa";
+
+    public interface Visitor {
+        void accept(String key, TransportResponse response, String failure);
+    }
+
+    private ResponseArchive() {
+    }
+
+    public static void read(Path file, Visitor visitor) throws IOException {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 65536), 65536))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not a response archive: " + file);
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported archive version " + version + ": " + file);
+
+            while (true) {
+                int type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException end) {
+                    break;
+                }
+                String key = readString(in);
+                if (type == FAILURE)
+                    visitor.accept(key, null, readString(in));
+                else
+                    visitor.accept(key, readResponse(in), null);
+            }
+        }
+    }
+
+    private static TransportResponse readResponse(DataInputStream in) throws IOException {
+        int status = in.readInt();
+
+        int headerCount = in.readInt();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(in);
+            int valueCount = in.readInt();
+            List<String> values = new ArrayList<>(valueCount);
+            for (int j = 0; j < valueCount; j++)
+                values.add(readString(in));
+            headers.put(name, values);
+        }
+
+        long size = in.readLong();
+        long limit = in.readLong();
+        boolean oversized = in.readBoolean();
+        byte[] bytes = new byte[(int) in.readLong()];
+        in.readFully(bytes);
+        CappedBody body = new CappedBody(List.of(ByteBuffer.wrap(bytes)), size, limit, oversized);
+
+        long firstByte = in.readLong();
+        long total = in.readLong();
+        return new TransportResponse(status, headers, body, new TransportTiming(firstByte, total));
+    }
+
+    public static Path file(Path dir, String runId) {
+        return dir.resolve(runId + EXTENSION);
+    }
+
+    public static Path latest(Path dir) throws IOException {
+        if (!Files.isDirectory(dir))
+            return null;
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(EXTENSION))
+                    .max(Comparator.comparingLong(p -> p.toFile().lastModified()))
+                    .orElse(null);
+        }
+    }
+
+    public static String key(TransportRequest request) {
+        StringBuilder key = new StringBuilder();
+        key.append(request.getMethod().toUpperCase(Locale.ROOT)).append(' ').append(request.getUri());
+        if (request.getHeaders() != null) {
+            Map<String, String> sorted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            sorted.putAll(request.getHeaders());
+            sorted.forEach((k, v) -> key.append('\n').append(k.toLowerCase(Locale.ROOT)).append(": ").append(v));
+        }
+        RequestBody body = request.getBody();
+        if (body != null) {
+            key.append("\n\n").append(body.getText() != null ? body.getText()
+                    : "@" + body.getFile() + " sha256:" + digest(body));
+        }
+        return key.toString();
+    }
+
+    private static String digest(RequestBody body) {
+        try (InputStream in = body.open()) {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1)
+                sha.update(buffer, 0, n);
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return "unreadable";
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0)
+            return null;
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
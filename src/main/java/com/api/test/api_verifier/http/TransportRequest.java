@@ -0,0 +1,48 @@
+package com.api.test.api_verifier.http;
+
+import java.net.URI;
+import java.util.Map;
+
+public class TransportRequest {
+
+    private final URI uri;
+    private final String method;
+    private final Map<String, String> headers;
+    private final RequestBody body;
+    private final long timeoutMs;
+    private final long maxResponseBytes;
+
+    public TransportRequest(URI uri, String method, Map<String, String> headers, RequestBody body, long timeoutMs,
+                            long maxResponseBytes) {
+        this.uri = uri;
+        this.method = method;
+        this.headers = headers;
+        this.body = body;
+        this.timeoutMs = timeoutMs;
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public RequestBody getBody() {
+        return body;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public long getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+}
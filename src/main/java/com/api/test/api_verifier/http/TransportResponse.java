@@ -0,0 +1,44 @@
+package com.api.test.api_verifier.http;
+
+import java.util.List;
+import java.util.Map;
+
+public class TransportResponse {
+
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final CappedBody body;
+    private final TransportTiming timing;
+
+    public TransportResponse(int statusCode, Map<String, List<String>> headers, CappedBody body,
+                             TransportTiming timing) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.timing = timing;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public CappedBody getBody() {
+        return body;
+    }
+
+    public TransportTiming getTiming() {
+        return timing;
+    }
+
+    public String firstHeader(String name) {
+        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+            if (e.getKey() != null && e.getKey().equalsIgnoreCase(name) && !e.getValue().isEmpty())
+                return e.getValue().get(0);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package com.api.test.api_verifier.http;
+
+public class TransportTiming {
+
+    private final long firstByteNanos;
+    private final long totalNanos;
+
+    public TransportTiming(long firstByteNanos, long totalNanos) {
+        this.firstByteNanos = firstByteNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    public long getFirstByteNanos() {
+        return firstByteNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.api.test.api_verifier.mock;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MockConfig {
+
+    private int port = 8089;
+    private String seedArchive;
+    private String seedTestcases;
+    private MockRoute defaults = new MockRoute();
+    private List<MockRoute> routes = new ArrayList<>();
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getSeedArchive() {
+        return seedArchive;
+    }
+
+    public void setSeedArchive(String seedArchive) {
+        this.seedArchive = seedArchive;
+    }
+
+    public String getSeedTestcases() {
+        return seedTestcases;
+    }
+
+    public void setSeedTestcases(String seedTestcases) {
+        this.seedTestcases = seedTestcases;
+    }
+
+    public MockRoute getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(MockRoute defaults) {
+        this.defaults = defaults != null ? defaults : new MockRoute();
+    }
+
+    public List<MockRoute> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<MockRoute> routes) {
+        this.routes = routes != null ? routes : new ArrayList<>();
+    }
+}
@@ -0,0 +1,255 @@
+package com.api.test.api_verifier.mock;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MockRoute {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Latency {
+        public enum Distribution {
+            FIXED, UNIFORM, NORMAL, EXPONENTIAL
+        }
+
+        private Distribution distribution = Distribution.FIXED;
+        private long ms;
+        private long minMs;
+        private long maxMs;
+        private double meanMs;
+        private double stdDevMs;
+
+        public long sampleMillis() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double value = switch (distribution) {
+                case FIXED -> ms;
+                case UNIFORM -> maxMs > minMs ? random.nextDouble(minMs, maxMs) : minMs;
+                case NORMAL -> meanMs + random.nextGaussian() * stdDevMs;
+                case EXPONENTIAL -> -meanMs * Math.log(1 - random.nextDouble());
+            };
+            if (maxMs > 0)
+                value = Math.min(value, maxMs);
+            return Math.max(minMs, Math.round(value));
+        }
+
+        public Distribution getDistribution() {
+            return distribution;
+        }
+
+        public void setDistribution(Distribution distribution) {
+            this.distribution = distribution != null ? distribution : Distribution.FIXED;
+        }
+
+        public long getMs() {
+            return ms;
+        }
+
+        public void setMs(long ms) {
+            this.ms = Math.max(0, ms);
+        }
+
+        public long getMinMs() {
+            return minMs;
+        }
+
+        public void setMinMs(long minMs) {
+            this.minMs = Math.max(0, minMs);
+        }
+
+        public long getMaxMs() {
+            return maxMs;
+        }
+
+        public void setMaxMs(long maxMs) {
+            this.maxMs = Math.max(0, maxMs);
+        }
+
+        public double getMeanMs() {
+            return meanMs;
+        }
+
+        public void setMeanMs(double meanMs) {
+            this.meanMs = Math.max(0, meanMs);
+        }
+
+        public double getStdDevMs() {
+            return stdDevMs;
+        }
+
+        public void setStdDevMs(double stdDevMs) {
+            this.stdDevMs = Math.max(0, stdDevMs);
+        }
+    }
+
+    private String method = "*";
+    private String path = "/**";
+    private Integer status;
+    private Map<String, String> headers = new LinkedHashMap<>();
+    private JsonNode body;
+    private String bodyFile;
+
+    private Latency latency;
+    private double errorRate;
+    private int errorStatus = 500;
+    private double rateLimitRate;
+    private int retryAfterSeconds = 1;
+    private double resetRate;
+    private long dripBytesPerSecond;
+    private int dripChunkBytes = 256;
+
+    private String[] segments;
+
+    public boolean matches(String requestMethod, String requestPath) {
+        if (!"*".equals(method) && !method.equalsIgnoreCase(requestMethod))
+            return false;
+        if (segments == null)
+            segments = split(path);
+
+        String[] actual = split(requestPath);
+        for (int i = 0; i < segments.length; i++) {
+            if (segments[i].equals("**"))
+                return true;
+            if (i >= actual.length)
+                return false;
+            boolean wildcard = segments[i].equals("*") || segments[i].startsWith("{") && segments[i].endsWith("}");
+            if (!wildcard && !segments[i].equals(actual[i]))
+                return false;
+        }
+        return segments.length == actual.length;
+    }
+
+    public boolean hasContent() {
+        return status != null || body != null || bodyFile != null;
+    }
+
+    public boolean hasFaults() {
+        return latency != null || errorRate > 0 || rateLimitRate > 0 || resetRate > 0 || dripBytesPerSecond > 0;
+    }
+
+    public String describe() {
+        return method.toUpperCase(Locale.ROOT) + " " + path;
+    }
+
+    private static String[] split(String p) {
+        String trimmed = p.startsWith("/") ? p.substring(1) : p;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method != null ? method : "*";
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path == null ? "/**" : path.startsWith("/") ? path : "/" + path;
+        this.segments = null;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers != null ? headers : new LinkedHashMap<>();
+    }
+
+    public JsonNode getBody() {
+        return body;
+    }
+
+    public void setBody(JsonNode body) {
+        this.body = body;
+    }
+
+    public String getBodyFile() {
+        return bodyFile;
+    }
+
+    public void setBodyFile(String bodyFile) {
+        this.bodyFile = bodyFile;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    public void setLatency(Latency latency) {
+        this.latency = latency;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public double getRateLimitRate() {
+        return rateLimitRate;
+    }
+
+    public void setRateLimitRate(double rateLimitRate) {
+        this.rateLimitRate = rateLimitRate;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    public void setResetRate(double resetRate) {
+        this.resetRate = resetRate;
+    }
+
+    public long getDripBytesPerSecond() {
+        return dripBytesPerSecond;
+    }
+
+    public void setDripBytesPerSecond(long dripBytesPerSecond) {
+        this.dripBytesPerSecond = dripBytesPerSecond;
+    }
+
+    public int getDripChunkBytes() {
+        return dripChunkBytes;
+    }
+
+    public void setDripChunkBytes(int dripChunkBytes) {
+        this.dripChunkBytes = Math.max(1, dripChunkBytes);
+    }
+}
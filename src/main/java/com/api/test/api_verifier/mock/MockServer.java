@@ -0,0 +1,313 @@
+package com.api.test.api_verifier.mock;
+
+import com.api.test.api_verifier.http.ResponseArchive;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class MockServer {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String STATS_PATH = "/__mock/stats";
+
+    private static final class Fixture {
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        private Fixture(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private final MockConfig config;
+    private final Map<String, Fixture> archived = new HashMap<>();
+    private final List<MockRoute> testcaseRoutes = new ArrayList<>();
+    private final Map<MockRoute, Fixture> routeContent = new HashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong dripped = new AtomicLong();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MockServer(MockConfig config) {
+        this.config = config;
+    }
+
+    public static MockConfig loadConfig(Path file) throws IOException {
+        if (file == null || !Files.exists(file))
+            return new MockConfig();
+        return JSON.readValue(file.toFile(), MockConfig.class);
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null)
+            return;
+        seed();
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(config.getPort()), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        System.out.println("Mock server listening on port " + getPort() + " with " + config.getRoutes().size()
+                + " routes, " + archived.size() + " archived and " + testcaseRoutes.size() + " testcase fixtures");
+    }
+
+    public synchronized void stop() {
+        if (server == null)
+            return;
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+    }
+
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : config.getPort();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("requests", requests.get());
+        m.put("unmatched", unmatched.get());
+        m.put("injectedErrors", injectedErrors.get());
+        m.put("rateLimited", rateLimited.get());
+        m.put("resets", resets.get());
+        m.put("dripped", dripped.get());
+        return m;
+    }
+
+    private void seed() throws IOException {
+        for (MockRoute route : config.getRoutes()) {
+            if (route.hasContent())
+                routeContent.put(route, content(route));
+        }
+
+        if (config.getSeedArchive() != null) {
+            Path archive = Paths.get(config.getSeedArchive());
+            ResponseArchive.read(archive, (key, response, failure) -> {
+                if (response == null)
+                    return;
+                String requestLine = key.substring(0, key.indexOf('\n') < 0 ? key.length() : key.indexOf('\n'));
+                int space = requestLine.indexOf(' ');
+                URI uri = URI.create(requestLine.substring(space + 1));
+                String method = requestLine.substring(0, space);
+                try (InputStream in = response.getBody().openStream()) {
+                    Fixture fixture = new Fixture(response.getStatusCode(), response.getHeaders(), in.readAllBytes());
+                    archived.putIfAbsent(method + " " + uri.getRawPath() + query(uri.getRawQuery()), fixture);
+                    archived.putIfAbsent(method + " " + uri.getRawPath(), fixture);
+                } catch (IOException ignored) {
+                }
+            });
+        }
+
+        if (config.getSeedTestcases() != null) {
+            Path dir = Paths.get(config.getSeedTestcases());
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> files = Files.walk(dir)) {
+                    for (Path file : files.filter(p -> p.toString().endsWith(".json")).toList()) {
+                        seedTestcase(file);
+                    }
+                }
+            }
+        }
+    }
+
+    private void seedTestcase(Path file) {
+        try {
+            JsonNode test = JSON.readTree(file.toFile());
+            JsonNode fixture = test.get("mockResponse");
+            if (fixture == null || !test.has("endpoint"))
+                return;
+
+            String endpoint = test.get("endpoint").asText();
+            int q = endpoint.indexOf('?');
+            MockRoute route = new MockRoute();
+            route.setMethod(test.path("method").asText("GET"));
+            route.setPath(q >= 0 ? endpoint.substring(0, q) : endpoint);
+            route.setStatus(fixture.path("status").asInt(200));
+            route.setBody(fixture.get("body"));
+            if (fixture.has("headers"))
+                route.setHeaders(JSON.convertValue(fixture.get("headers"), Map.class));
+
+            testcaseRoutes.add(route);
+            routeContent.put(route, content(route));
+        } catch (IOException e) {
+            System.out.println("Skipping mock fixture " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static Fixture content(MockRoute route) throws IOException {
+        byte[] body;
+        if (route.getBodyFile() != null)
+            body = Files.readAllBytes(Paths.get(route.getBodyFile()));
+        else if (route.getBody() == null)
+            body = new byte[0];
+        else if (route.getBody().isTextual())
+            body = route.getBody().asText().getBytes(StandardCharsets.UTF_8);
+        else
+            body = JSON.writeValueAsBytes(route.getBody());
+
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", List.of("application/json"));
+        route.getHeaders().forEach((k, v) -> headers.put(k, List.of(v)));
+        return new Fixture(route.getStatus() != null ? route.getStatus() : 200, headers, body);
+    }
+
+    private static String query(String rawQuery) {
+        return rawQuery != null ? "?" + rawQuery : "";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            URI uri = exchange.getRequestURI();
+            String path = uri.getRawPath();
+
+            if (STATS_PATH.equals(path)) {
+                send(exchange, new Fixture(200, Map.of("Content-Type", List.of("application/json")),
+                        JSON.writeValueAsBytes(stats())), null);
+                return;
+            }
+
+            try (InputStream in = exchange.getRequestBody()) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            requests.incrementAndGet();
+
+            MockRoute faults = config.getDefaults();
+            Fixture content = null;
+            for (MockRoute route : config.getRoutes()) {
+                if (!route.matches(method, path))
+                    continue;
+                if (faults == config.getDefaults() && route.hasFaults())
+                    faults = route;
+                if (content == null && route.hasContent())
+                    content = routeContent.get(route);
+            }
+            if (content == null)
+                content = archived.get(method + " " + path + query(uri.getRawQuery()));
+            if (content == null)
+                content = archived.get(method + " " + path);
+            if (content == null) {
+                for (MockRoute route : testcaseRoutes) {
+                    if (route.matches(method, path)) {
+                        content = routeContent.get(route);
+                        break;
+                    }
+                }
+            }
+
+            if (faults.getLatency() != null)
+                sleep(faults.getLatency().sampleMillis());
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (faults.getResetRate() > 0 && random.nextDouble() < faults.getResetRate()) {
+                resets.incrementAndGet();
+                exchange.sendResponseHeaders(200, 1024);
+                exchange.getResponseBody().write('{');
+                exchange.getResponseBody().flush();
+                return;
+            }
+            if (faults.getRateLimitRate() > 0 && random.nextDouble() < faults.getRateLimitRate()) {
+                rateLimited.incrementAndGet();
+                send(exchange, new Fixture(429, Map.of("Retry-After",
+                        List.of(String.valueOf(faults.getRetryAfterSeconds()))),
+                        "{\"error\":\"Too Many Requests\"}".getBytes(StandardCharsets.UTF_8)), null);
+                return;
+            }
+            if (faults.getErrorRate() > 0 && random.nextDouble() < faults.getErrorRate()) {
+                injectedErrors.incrementAndGet();
+                send(exchange, new Fixture(faults.getErrorStatus(), Map.of(),
+                        "{\"error\":\"Injected failure\"}".getBytes(StandardCharsets.UTF_8)), null);
+                return;
+            }
+
+            if (content == null) {
+                unmatched.incrementAndGet();
+                content = new Fixture(404, Map.of("Content-Type", List.of("application/json")),
+                        ("{\"error\":\"No mock route for " + method + " " + path + "\"}")
+                                .getBytes(StandardCharsets.UTF_8));
+            }
+            send(exchange, content, faults.getDripBytesPerSecond() > 0 ? faults : null);
+        } catch (IOException e) {
+            // client went away or the connection was reset on purpose
+        }
+    }
+
+    private void send(HttpExchange exchange, Fixture fixture, MockRoute drip) throws IOException {
+        fixture.headers.forEach((k, v) -> {
+            if (!k.equalsIgnoreCase("Content-Length") && !k.equalsIgnoreCase("Transfer-Encoding"))
+                exchange.getResponseHeaders().put(k, v);
+        });
+        exchange.sendResponseHeaders(fixture.status, fixture.body.length == 0 ? -1 : fixture.body.length);
+        if (fixture.body.length == 0)
+            return;
+
+        OutputStream out = exchange.getResponseBody();
+        if (drip == null) {
+            out.write(fixture.body);
+            return;
+        }
+
+        dripped.incrementAndGet();
+        int chunk = drip.getDripChunkBytes();
+        long pauseMs = Math.max(1, chunk * 1000L / drip.getDripBytesPerSecond());
+        for (int off = 0; off < fixture.body.length; off += chunk) {
+            out.write(fixture.body, off, Math.min(chunk, fixture.body.length - off));
+            out.flush();
+            sleep(pauseMs);
+        }
+    }
+
+    private static void sleep(long ms) {
+        if (ms <= 0)
+            return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = args.length > 0 ? Paths.get(args[0])
+                : Paths.get(System.getProperty("user.home"), "testiq", "config", "mock-routes.json");
+        MockConfig config = loadConfig(file);
+        if (args.length > 1)
+            config.setPort(Integer.parseInt(args[1]));
+
+        MockServer server = new MockServer(config);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+    }
+}
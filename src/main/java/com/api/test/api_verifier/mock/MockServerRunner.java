@@ -0,0 +1,45 @@
+package com.api.test.api_verifier.mock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Component
+@Profile("mock")
+public class MockServerRunner {
+
+    private final String configFile;
+    private final int port;
+    private MockServer server;
+
+    public MockServerRunner(@Value("${testiq.mock.config:${user.home}/testiq/config/mock-routes.json}") String configFile,
+                            @Value("${testiq.mock.port:8089}") int port) {
+        this.configFile = configFile;
+        this.port = port;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        MockConfig config = MockServer.loadConfig(Paths.get(configFile));
+        if (port > 0)
+            config.setPort(port);
+        server = new MockServer(config);
+        server.start();
+    }
+
+    public MockServer getServer() {
+        return server;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null)
+            server.stop();
+    }
+}
@@ -1,9 +1,15 @@
 package com.api.test.api_verifier.model;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class ApiResult {
 
+    public enum FailureKind {
+        TRANSPORT, ASSERTION
+    }
+
     private int id;
     private String name;
     private String endpoint;
@@ -18,6 +24,43 @@ public class ApiResult {
 
     private String skipReason;
 
+    private int attempts;
+    private long durationMs;
+    private FailureKind failureKind;
+    private List<Execution> executions = new ArrayList<>();
+
+    public List<Execution> getExecutions() {
+        return executions;
+    }
+
+    public void setExecutions(List<Execution> executions) {
+        this.executions = executions;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public FailureKind getFailureKind() {
+        return failureKind;
+    }
+
+    public void setFailureKind(FailureKind failureKind) {
+        this.failureKind = failureKind;
+    }
+
     public String getSkipReason() {
         return skipReason;
     }
@@ -111,6 +154,60 @@ public class ApiResult {
         }
     }
 
+    public static class Execution {
+        private String fullUrl;
+        private int statusCode;
+        private int attempts;
+        private Double ttfbMs;
+        private Double totalMs;
+        private long responseBytes;
+        private long wireBytes;
+        private String contentEncoding;
+        private Map<String, List<String>> responseHeaders;
+
+        public Execution(String fullUrl, int statusCode, int attempts, Double ttfbMs,
+                         Double totalMs, long responseBytes, long wireBytes, String contentEncoding,
+                         Map<String, List<String>> responseHeaders) {
+            this.fullUrl = fullUrl;
+            this.statusCode = statusCode;
+            this.attempts = attempts;
+            this.ttfbMs = ttfbMs;
+            this.totalMs = totalMs;
+            this.responseBytes = responseBytes;
+            this.wireBytes = wireBytes;
+            this.contentEncoding = contentEncoding;
+            this.responseHeaders = responseHeaders;
+        }
+
+        public String getFullUrl() {
+            return fullUrl;
+        }
+        public int getStatusCode() {
+            return statusCode;
+        }
+        public int getAttempts() {
+            return attempts;
+        }
+        public Double getTtfbMs() {
+            return ttfbMs;
+        }
+        public Double getTotalMs() {
+            return totalMs;
+        }
+        public long getResponseBytes() {
+            return responseBytes;
+        }
+        public long getWireBytes() {
+            return wireBytes;
+        }
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+        public Map<String, List<String>> getResponseHeaders() {
+            return responseHeaders;
+        }
+    }
+
     public static class CheckResult {
         private String type;
         private String status;
@@ -0,0 +1,118 @@
+package com.api.test.api_verifier.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RetryPolicy {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+
+    private int maxAttempts = 1;
+    private long initialBackoffMs = 200;
+    private long maxBackoffMs = 5000;
+    private double multiplier = 2.0;
+    private double jitter = 0.5;
+    private boolean idempotentOnly = true;
+    private Set<Integer> retryOnStatus = new HashSet<>();
+
+    public RetryPolicy copy() {
+        RetryPolicy p = new RetryPolicy();
+        p.maxAttempts = maxAttempts;
+        p.initialBackoffMs = initialBackoffMs;
+        p.maxBackoffMs = maxBackoffMs;
+        p.multiplier = multiplier;
+        p.jitter = jitter;
+        p.idempotentOnly = idempotentOnly;
+        p.retryOnStatus = new HashSet<>(retryOnStatus);
+        return p;
+    }
+
+    public RetryPolicy overriddenBy(JsonNode overrides) {
+        if (overrides == null || !overrides.isObject())
+            return this;
+        try {
+            return MAPPER.readerForUpdating(copy()).readValue(overrides);
+        } catch (IOException e) {
+            return this;
+        }
+    }
+
+    public boolean shouldRetry(String method, boolean transportFailure, int statusCode, int attempt) {
+        if (attempt >= maxAttempts)
+            return false;
+        if (idempotentOnly && (method == null || !IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ROOT))))
+            return false;
+        return transportFailure || retryOnStatus.contains(statusCode);
+    }
+
+    public long backoffMillis(int attempt) {
+        double base = Math.min(maxBackoffMs, initialBackoffMs * Math.pow(multiplier, attempt - 1));
+        double spread = base * jitter;
+        return Math.max(0, Math.round(base - spread + ThreadLocalRandom.current().nextDouble() * spread));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    public long getInitialBackoffMs() {
+        return initialBackoffMs;
+    }
+
+    public void setInitialBackoffMs(long initialBackoffMs) {
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(long maxBackoffMs) {
+        this.maxBackoffMs = Math.max(0, maxBackoffMs);
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(double multiplier) {
+        this.multiplier = Math.max(1.0, multiplier);
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(double jitter) {
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+    }
+
+    public boolean isIdempotentOnly() {
+        return idempotentOnly;
+    }
+
+    public void setIdempotentOnly(boolean idempotentOnly) {
+        this.idempotentOnly = idempotentOnly;
+    }
+
+    public Set<Integer> getRetryOnStatus() {
+        return retryOnStatus;
+    }
+
+    public void setRetryOnStatus(Set<Integer> retryOnStatus) {
+        this.retryOnStatus = retryOnStatus != null ? new HashSet<>(retryOnStatus) : new HashSet<>();
+    }
+}
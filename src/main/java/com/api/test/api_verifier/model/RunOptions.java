@@ -0,0 +1,249 @@
+package com.api.test.api_verifier.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RunOptions {
+
+    public enum ExecutionMode {
+        PLATFORM, VIRTUAL
+    }
+
+    public enum Transport {
+        JDK(true), APACHE(false);
+
+        private final boolean blocking;
+
+        Transport(boolean blocking) {
+            this.blocking = blocking;
+        }
+
+        public boolean isBlocking() {
+            return blocking;
+        }
+    }
+
+    public enum ArchiveMode {
+        OFF, RECORD, REPLAY
+    }
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+            .build();
+
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    private int maxConcurrentRequests = 64;
+    private long maxResponseBytes;
+    private Transport transport = Transport.JDK;
+    private int prewarmConnections;
+    private RetryPolicy retry = new RetryPolicy();
+    private int retryBudget = 100;
+    private long requestTimeoutMs;
+    private long deadlineMs;
+    private long deadlineMarginMs = 1000;
+    private boolean coalesceGets = true;
+    private boolean memoizeGets;
+    private boolean cachePrechecks = true;
+    private long precheckCacheTtlMs;
+    private boolean compression;
+    private ArchiveMode archiveMode = ArchiveMode.OFF;
+    private String replayRunId;
+    private int fanOut = 8;
+    private String runId;
+    private int maxFailuresPerSuite;
+    private int maxFailuresPerRow;
+    private int maxFailuresPerRun;
+
+    public static RunOptions parse(String json) throws Exception {
+        if (json == null || json.isBlank())
+            return new RunOptions();
+        RunOptions options = MAPPER.readValue(json, RunOptions.class);
+        options.validate();
+        return options;
+    }
+
+    public void validate() {
+        if (executionMode == ExecutionMode.VIRTUAL && !transport.isBlocking())
+            throw new IllegalArgumentException("VIRTUAL execution mode needs a blocking transport; "
+                    + transport + " has no blocking mode");
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode != null ? executionMode : ExecutionMode.PLATFORM;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+    }
+
+    public long getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    public void setMaxResponseBytes(long maxResponseBytes) {
+        this.maxResponseBytes = Math.max(0, maxResponseBytes);
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(Transport transport) {
+        this.transport = transport != null ? transport : Transport.JDK;
+    }
+
+    public int getPrewarmConnections() {
+        return prewarmConnections;
+    }
+
+    public void setPrewarmConnections(int prewarmConnections) {
+        this.prewarmConnections = Math.max(0, prewarmConnections);
+    }
+
+    public RetryPolicy getRetry() {
+        return retry;
+    }
+
+    public void setRetry(RetryPolicy retry) {
+        this.retry = retry != null ? retry : new RetryPolicy();
+    }
+
+    public int getRetryBudget() {
+        return retryBudget;
+    }
+
+    public void setRetryBudget(int retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    public void setRequestTimeoutMs(long requestTimeoutMs) {
+        this.requestTimeoutMs = Math.max(0, requestTimeoutMs);
+    }
+
+    public long getDeadlineMs() {
+        return deadlineMs;
+    }
+
+    public void setDeadlineMs(long deadlineMs) {
+        this.deadlineMs = Math.max(0, deadlineMs);
+    }
+
+    public long getDeadlineMarginMs() {
+        return deadlineMarginMs;
+    }
+
+    public void setDeadlineMarginMs(long deadlineMarginMs) {
+        this.deadlineMarginMs = Math.max(0, deadlineMarginMs);
+    }
+
+    public boolean isCoalesceGets() {
+        return coalesceGets;
+    }
+
+    public void setCoalesceGets(boolean coalesceGets) {
+        this.coalesceGets = coalesceGets;
+    }
+
+    public boolean isMemoizeGets() {
+        return memoizeGets;
+    }
+
+    public void setMemoizeGets(boolean memoizeGets) {
+        this.memoizeGets = memoizeGets;
+    }
+
+    public boolean isCachePrechecks() {
+        return cachePrechecks;
+    }
+
+    public void setCachePrechecks(boolean cachePrechecks) {
+        this.cachePrechecks = cachePrechecks;
+    }
+
+    public long getPrecheckCacheTtlMs() {
+        return precheckCacheTtlMs;
+    }
+
+    public void setPrecheckCacheTtlMs(long precheckCacheTtlMs) {
+        this.precheckCacheTtlMs = Math.max(0, precheckCacheTtlMs);
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public ArchiveMode getArchiveMode() {
+        return archiveMode;
+    }
+
+    public void setArchiveMode(ArchiveMode archiveMode) {
+        this.archiveMode = archiveMode != null ? archiveMode : ArchiveMode.OFF;
+    }
+
+    public String getReplayRunId() {
+        return replayRunId;
+    }
+
+    public void setReplayRunId(String replayRunId) {
+        this.replayRunId = replayRunId;
+    }
+
+    public int getFanOut() {
+        return fanOut;
+    }
+
+    public void setFanOut(int fanOut) {
+        this.fanOut = fanOut;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public void setRunId(String runId) {
+        this.runId = runId;
+    }
+
+    public int getMaxFailuresPerSuite() {
+        return maxFailuresPerSuite;
+    }
+
+    public void setMaxFailuresPerSuite(int maxFailuresPerSuite) {
+        this.maxFailuresPerSuite = maxFailuresPerSuite;
+    }
+
+    public int getMaxFailuresPerRow() {
+        return maxFailuresPerRow;
+    }
+
+    public void setMaxFailuresPerRow(int maxFailuresPerRow) {
+        this.maxFailuresPerRow = maxFailuresPerRow;
+    }
+
+    public int getMaxFailuresPerRun() {
+        return maxFailuresPerRun;
+    }
+
+    public void setMaxFailuresPerRun(int maxFailuresPerRun) {
+        this.maxFailuresPerRun = maxFailuresPerRun;
+    }
+}
@@ -1,26 +1,354 @@
 package com.api.test.api_verifier.service;
 
+import com.api.test.api_verifier.http.ApacheHttpTransport;
+import com.api.test.api_verifier.http.ArchiveWriter;
+import com.api.test.api_verifier.http.CappedBody;
+import com.api.test.api_verifier.http.CircuitBreaker;
+import com.api.test.api_verifier.http.CircuitOpenException;
+import com.api.test.api_verifier.http.ContentDecoding;
+import com.api.test.api_verifier.http.DecodedBodyStream;
+import com.api.test.api_verifier.http.HostLimiter;
+import com.api.test.api_verifier.http.HttpTransport;
+import com.api.test.api_verifier.http.JdkHttpTransport;
+import com.api.test.api_verifier.http.ReplayTransport;
+import com.api.test.api_verifier.http.RequestBody;
+import com.api.test.api_verifier.http.ResponseArchive;
+import com.api.test.api_verifier.http.TransportRequest;
+import com.api.test.api_verifier.http.TransportResponse;
+import com.api.test.api_verifier.http.TransportTiming;
+import com.api.test.api_verifier.model.RunOptions;
+import com.api.test.api_verifier.model.RunOptions.Transport;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @Service
 public class ApiCaller {
 
-    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final int defaultMaxInFlightPerHost;
+    private final double defaultRequestsPerSecondPerHost;
+    private final boolean adaptiveHostLimits;
+    private final long defaultMaxResponseBytes;
+    private final long connectTimeoutMs;
+    private final long defaultRequestTimeoutMs;
+    private final int apacheMaxConnectionsPerRoute;
+    private final int apacheMaxConnectionsTotal;
+    private final long apacheKeepAliveSeconds;
+    private final Path archiveDir;
+    private final Map<Transport, HttpTransport> transports = new ConcurrentHashMap<>();
+    private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpTransport blockingTransport;
+    private final Map<URI, Integer> routeLimits = new ConcurrentHashMap<>();
+    private final int circuitFailureThreshold;
+    private final long circuitCooldownMs;
+    private final int circuitHalfOpenProbes;
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService limiterTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "host-limiter-timer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ApiCaller(@Value("${testiq.http.host.max-in-flight:32}") int defaultMaxInFlightPerHost,
+                     @Value("${testiq.http.host.requests-per-second:0}") double defaultRequestsPerSecondPerHost,
+                     @Value("${testiq.http.host.adaptive:false}") boolean adaptiveHostLimits,
+                     @Value("${testiq.http.max-response-bytes:16777216}") long defaultMaxResponseBytes,
+                     @Value("${testiq.http.connect-timeout-ms:10000}") long connectTimeoutMs,
+                     @Value("${testiq.http.request-timeout-ms:10000}") long defaultRequestTimeoutMs,
+                     @Value("${testiq.http.apache.max-connections-per-route:32}") int apacheMaxConnectionsPerRoute,
+                     @Value("${testiq.http.apache.max-connections-total:256}") int apacheMaxConnectionsTotal,
+                     @Value("${testiq.http.apache.keep-alive-seconds:30}") long apacheKeepAliveSeconds,
+                     @Value("${testiq.http.circuit.failure-threshold:5}") int circuitFailureThreshold,
+                     @Value("${testiq.http.circuit.cooldown-ms:30000}") long circuitCooldownMs,
+                     @Value("${testiq.http.circuit.half-open-probes:1}") int circuitHalfOpenProbes,
+                     @Value("${testiq.archive.dir:${user.home}/testiq/archives}") String archiveDir) {
+        this.defaultMaxInFlightPerHost = defaultMaxInFlightPerHost;
+        this.defaultRequestsPerSecondPerHost = defaultRequestsPerSecondPerHost;
+        this.adaptiveHostLimits = adaptiveHostLimits;
+        this.defaultMaxResponseBytes = defaultMaxResponseBytes;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.defaultRequestTimeoutMs = defaultRequestTimeoutMs;
+        this.apacheMaxConnectionsPerRoute = apacheMaxConnectionsPerRoute;
+        this.apacheMaxConnectionsTotal = apacheMaxConnectionsTotal;
+        this.apacheKeepAliveSeconds = apacheKeepAliveSeconds;
+        this.circuitFailureThreshold = circuitFailureThreshold;
+        this.circuitCooldownMs = circuitCooldownMs;
+        this.circuitHalfOpenProbes = circuitHalfOpenProbes;
+        this.archiveDir = Paths.get(archiveDir);
+        this.transports.put(Transport.JDK, new JdkHttpTransport(connectTimeoutMs));
+        this.blockingTransport = new JdkHttpTransport(connectTimeoutMs, virtualExecutor);
+    }
+
+    public interface SendGate {
+        CompletableFuture<TransportResponse> submit(Supplier<CompletableFuture<TransportResponse>> send);
+    }
+
+    public enum Outcome {
+        OK, ERROR, OVERSIZED, CIRCUIT_OPEN, DEADLINE_EXCEEDED, CANCELLED
+    }
+
+    public static class ApiRequest {
+        private final String url;
+        private final String method;
+        private final String cookie;
+        private final Map<String, String> headers;
+        private long maxResponseBytes;
+        private Transport transport = Transport.JDK;
+        private long timeoutMs;
+        private long deadlineNanos;
+        private boolean compression;
+        private RequestBody body;
+        private ArchiveWriter recorder;
+        private ReplayTransport replay;
+        private URI uri;
+        private Map<String, String> preparedHeaders;
+        private CancelScope cancelScope;
+        private long priority;
+
+        public ApiRequest(String url, String method, String cookie, Map<String, String> headers) {
+            this.url = url;
+            this.method = method;
+            this.cookie = cookie;
+            this.headers = headers;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getCookie() {
+            return cookie;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public void setUri(URI uri) {
+            this.uri = uri;
+        }
+
+        public Map<String, String> getPreparedHeaders() {
+            return preparedHeaders;
+        }
+
+        public void setPreparedHeaders(Map<String, String> preparedHeaders) {
+            this.preparedHeaders = preparedHeaders;
+        }
+
+        public CancelScope getCancelScope() {
+            return cancelScope;
+        }
+
+        public void setCancelScope(CancelScope cancelScope) {
+            this.cancelScope = cancelScope;
+        }
+
+        public long getPriority() {
+            return priority;
+        }
+
+        public void setPriority(long priority) {
+            this.priority = priority;
+        }
+
+        public long getMaxResponseBytes() {
+            return maxResponseBytes;
+        }
+
+        public void setMaxResponseBytes(long maxResponseBytes) {
+            this.maxResponseBytes = maxResponseBytes;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        public void setTransport(Transport transport) {
+            this.transport = transport != null ? transport : Transport.JDK;
+        }
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public long getDeadlineNanos() {
+            return deadlineNanos;
+        }
+
+        public void setDeadlineNanos(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public boolean isCompression() {
+            return compression;
+        }
+
+        public void setCompression(boolean compression) {
+            this.compression = compression;
+        }
+
+        public RequestBody getBody() {
+            return body;
+        }
+
+        public void setBody(RequestBody body) {
+            this.body = body;
+        }
+
+        public ArchiveWriter getRecorder() {
+            return recorder;
+        }
+
+        public void setRecorder(ArchiveWriter recorder) {
+            this.recorder = recorder;
+        }
+
+        public ReplayTransport getReplay() {
+            return replay;
+        }
+
+        public void setReplay(ReplayTransport replay) {
+            this.replay = replay;
+        }
+    }
 
     public static class ApiResponse {
+        private static final int RAW_BODY_PREVIEW_BYTES = 2048;
+        private static final ObjectReader STREAMING_JSON = JSON.reader()
+                .without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
         private final int statusCode;
-        private final String responseBody;
+        private Outcome outcome;
+        private String responseBody;
+        private long bodySize;
+        private final long wireBytes;
+        private final long bodyLimit;
+        private final String contentEncoding;
+        private final Map<String, List<String>> headers;
+        private final TransportTiming timing;
+        private CappedBody body;
+        private int attempts = 1;
+
+        private volatile boolean decoded = true;
+        private volatile boolean parsed;
+        private JsonNode json;
+        private IOException parseError;
 
         public ApiResponse(int statusCode, String responseBody) {
+            this(Outcome.OK, statusCode, responseBody);
+        }
+
+        public ApiResponse(Outcome outcome, int statusCode, String responseBody) {
+            this.outcome = outcome;
             this.statusCode = statusCode;
             this.responseBody = responseBody;
+            this.bodySize = responseBody != null ? responseBody.length() : 0;
+            this.wireBytes = bodySize;
+            this.bodyLimit = 0;
+            this.contentEncoding = null;
+            this.headers = Map.of();
+            this.timing = null;
+        }
+
+        public ApiResponse(TransportResponse response) {
+            this.body = response.getBody();
+            this.statusCode = response.getStatusCode();
+            this.wireBytes = body.getSize();
+            this.bodyLimit = body.getLimit();
+            this.contentEncoding = ContentDecoding.normalize(response.firstHeader("Content-Encoding"));
+
+            if (contentEncoding == null) {
+                this.outcome = body.isOversized() ? Outcome.OVERSIZED : Outcome.OK;
+                this.bodySize = wireBytes;
+                this.responseBody = body.preview(RAW_BODY_PREVIEW_BYTES);
+            } else if (body.isOversized()) {
+                this.outcome = Outcome.OVERSIZED;
+                this.bodySize = wireBytes;
+                this.responseBody = "[" + contentEncoding + " body, " + wireBytes + " bytes on the wire]";
+            } else {
+                this.decoded = false;
+            }
+            this.headers = response.getHeaders() != null ? response.getHeaders() : Map.of();
+            this.timing = response.getTiming();
+        }
+
+        public Outcome getOutcome() {
+            decode();
+            return outcome;
+        }
+
+        public boolean isOversized() {
+            decode();
+            return outcome == Outcome.OVERSIZED;
+        }
+
+        public boolean isTransportFailure() {
+            return outcome == Outcome.ERROR;
+        }
+
+        public boolean isCircuitOpen() {
+            return outcome == Outcome.CIRCUIT_OPEN;
+        }
+
+        public String getSkipReason() {
+            if (outcome == Outcome.CIRCUIT_OPEN)
+                return "Skipped because " + responseBody;
+            return outcome == Outcome.DEADLINE_EXCEEDED || outcome == Outcome.CANCELLED ? responseBody : null;
+        }
+
+        public int getAttempts() {
+            return attempts;
+        }
+
+        public void setAttempts(int attempts) {
+            this.attempts = attempts;
         }
 
         public int getStatusCode() {
@@ -28,36 +356,447 @@ public class ApiCaller {
         }
 
         public String getResponseBody() {
+            decode();
             return responseBody;
         }
+
+        public long getBodySize() {
+            decode();
+            return bodySize;
+        }
+
+        public long getBodyLimit() {
+            return bodyLimit;
+        }
+
+        public long getWireBytes() {
+            return wireBytes;
+        }
+
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public TransportTiming getTiming() {
+            return timing;
+        }
+
+        public JsonNode getJson() throws IOException {
+            decode();
+            if (!parsed) {
+                synchronized (this) {
+                    if (!parsed) {
+                        try {
+                            json = parseJson();
+                        } catch (IOException e) {
+                            parseError = e;
+                        }
+                        body = null;
+                        parsed = true;
+                    }
+                }
+            }
+            if (parseError != null)
+                throw parseError;
+            return json;
+        }
+
+        private JsonNode parseJson() throws IOException {
+            if (parseError != null)
+                throw parseError;
+            if (isOversized())
+                throw new IOException("Response body exceeded " + bodyLimit + " bytes");
+            if (body == null)
+                return JSON.readTree(responseBody);
+            try (InputStream in = body.openStream()) {
+                return JSON.readTree(in);
+            }
+        }
+
+        private void decode() {
+            if (decoded)
+                return;
+            synchronized (this) {
+                if (decoded)
+                    return;
+                DecodedBodyStream in = null;
+                try {
+                    in = new DecodedBodyStream(ContentDecoding.decode(body.openStream(), contentEncoding), bodyLimit,
+                            RAW_BODY_PREVIEW_BYTES);
+                    try {
+                        json = STREAMING_JSON.readTree(in);
+                    } catch (IOException e) {
+                        if (!in.isOverLimit())
+                            parseError = e;
+                    }
+                    in.drain();
+                } catch (IOException e) {
+                    if (in == null || !in.isOverLimit())
+                        parseError = e;
+                } finally {
+                    try {
+                        if (in != null)
+                            in.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+                boolean over = in != null && in.isOverLimit();
+                this.bodySize = in != null ? in.getCount() : 0;
+                this.outcome = over ? Outcome.OVERSIZED : Outcome.OK;
+                this.responseBody = in != null ? in.preview() : "";
+                if (over) {
+                    json = null;
+                    parseError = new IOException("Response body exceeded " + bodyLimit + " bytes");
+                }
+                body = null;
+                parsed = true;
+                decoded = true;
+            }
+        }
     }
 
     public ApiResponse callApi(String urlStr, String method, String cookie, Map<String, String> headers) {
+        return callApi(new ApiRequest(urlStr, method, cookie, headers));
+    }
+
+    public ApiResponse callApi(ApiRequest apiRequest) {
+        return callApiAsync(apiRequest).join();
+    }
+
+    public CompletableFuture<ApiResponse> callApiAsync(String urlStr, String method, String cookie,
+                                                       Map<String, String> headers) {
+        return callApiAsync(new ApiRequest(urlStr, method, cookie, headers));
+    }
+
+    public CompletableFuture<ApiResponse> callApiAsync(ApiRequest apiRequest) {
+        return callApiAsync(apiRequest, Supplier::get, false);
+    }
+
+    public CompletableFuture<ApiResponse> callApiAsync(ApiRequest apiRequest, SendGate gate, boolean blocking) {
+        TransportRequest request;
+        HttpTransport transport;
         try {
-            HttpRequest.Builder builder = HttpRequest.newBuilder().uri(URI.create(urlStr))
-                    .timeout(Duration.ofSeconds(10));
+            request = buildRequest(apiRequest);
+            transport = blocking ? blockingTransport : transport(apiRequest.getTransport());
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
 
-            if ("POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)) {
-                builder.method(method, HttpRequest.BodyPublishers.ofString("{}"));
-            } else {
-                builder.method(method, HttpRequest.BodyPublishers.noBody());
+        if (apiRequest.getReplay() != null) {
+            return gate.submit(() -> apiRequest.getReplay().send(request))
+                    .thenApply(ApiResponse::new)
+                    .exceptionally(this::errorResponse);
+        }
+
+        ArchiveWriter recorder = apiRequest.getRecorder();
+        CancelScope cancelScope = apiRequest.getCancelScope();
+        String host = hostKey(request.getUri());
+        CircuitBreaker breaker = breakerFor(host);
+        long probe = breaker.acquire();
+        if (probe == CircuitBreaker.REJECTED)
+            return CompletableFuture.completedFuture(new ApiResponse(Outcome.CIRCUIT_OPEN, 0, breaker.reason()));
+
+        HostLimiter limiter = limiterFor(request.getUri());
+        CompletableFuture<Void> permit = limiter.acquire();
+        if (cancelScope != null)
+            cancelScope.track(permit);
+        return permit
+                .whenComplete((granted, e) -> {
+                    if (e != null)
+                        breaker.releaseProbe(probe);
+                })
+                .thenCompose(granted -> {
+                    AtomicBoolean started = new AtomicBoolean();
+                    return gate.submit(() -> {
+                        started.set(true);
+                        return blocking ? sendOnVirtualThread(request, limiter, breaker, probe, cancelScope)
+                                : send(transport, request, limiter, breaker, probe, cancelScope);
+                    }).whenComplete((r, e) -> {
+                        if (e != null && !started.get()) {
+                            limiter.release();
+                            breaker.releaseProbe(probe);
+                        }
+                    });
+                })
+                .whenComplete((response, e) -> record(recorder, request, response, e))
+                .thenApply(ApiResponse::new)
+                .exceptionally(this::errorResponse);
+    }
+
+    private void record(ArchiveWriter recorder, TransportRequest request, TransportResponse response, Throwable e) {
+        if (recorder == null)
+            return;
+        if (response != null)
+            recorder.record(request, response);
+        else if (!(unwrap(e) instanceof CircuitOpenException)
+                && !(unwrap(e) instanceof RunCancelledException)
+                && !(unwrap(e) instanceof RunDeadlineExceededException))
+            recorder.recordFailure(request, unwrap(e));
+    }
+
+    public void configureHost(String baseUrl, Integer maxInFlight, Double requestsPerSecond) {
+        URI uri = URI.create(baseUrl);
+        limiterFor(uri).override(maxInFlight, requestsPerSecond);
+        if (maxInFlight != null) {
+            routeLimits.put(uri, maxInFlight);
+            transports.values().forEach(t -> t.configureRoute(uri, maxInFlight));
+        }
+    }
+
+    public void openArchive(RunContext run) throws IOException {
+        RunOptions options = run.getOptions();
+        if (options.getArchiveMode() == RunOptions.ArchiveMode.RECORD) {
+            run.setRecorder(new ArchiveWriter(ResponseArchive.file(archiveDir, run.getRunId())));
+        } else if (options.getArchiveMode() == RunOptions.ArchiveMode.REPLAY) {
+            Path file = options.getReplayRunId() != null
+                    ? ResponseArchive.file(archiveDir, options.getReplayRunId())
+                    : ResponseArchive.latest(archiveDir);
+            if (file == null)
+                throw new IOException("No recorded archive found in " + archiveDir);
+            run.setReplay(new ReplayTransport(file));
+        }
+    }
+
+    public CompletableFuture<Void> prewarm(Transport transport, String baseUrl, int connections) {
+        return prewarm(transport, false, baseUrl, connections);
+    }
+
+    public CompletableFuture<Void> prewarm(Transport transport, boolean blocking, String baseUrl, int connections) {
+        if (connections <= 0)
+            return CompletableFuture.completedFuture(null);
+        try {
+            return (blocking ? blockingTransport : transport(transport))
+                    .prewarm(URI.create(baseUrl), connections, connectTimeoutMs);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    public Map<String, Object> describeTransport(Transport transport) {
+        return transport(transport).stats();
+    }
+
+    public Map<String, Object> describeBlockingTransport() {
+        Map<String, Object> stats = blockingTransport.stats();
+        stats.put("blocking", true);
+        return stats;
+    }
+
+    public Map<String, Object> describeHosts(Collection<String> baseUrls, long sinceMillis) {
+        Map<String, Object> hosts = new LinkedHashMap<>();
+        for (String baseUrl : baseUrls) {
+            try {
+                HostLimiter limiter = limiterFor(URI.create(baseUrl));
+                Map<String, Object> snapshot = limiter.snapshot(sinceMillis);
+                snapshot.put("circuit", breakerFor(limiter.getHost()).snapshot());
+                hosts.putIfAbsent(limiter.getHost(), snapshot);
+            } catch (IllegalArgumentException ignored) {
             }
+        }
+        return hosts;
+    }
 
-            if (headers != null) {
-                headers.forEach(builder::header);
+    public String circuitOpenReason(String baseUrl) {
+        try {
+            CircuitBreaker breaker = circuitBreakers.get(hostKey(URI.create(baseUrl)));
+            return breaker != null && breaker.isRejecting() ? breaker.reason() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String hostKey(URI uri) {
+        return (uri.getScheme() + "://" + uri.getAuthority()).toLowerCase(Locale.ROOT);
+    }
+
+    private CircuitBreaker breakerFor(String host) {
+        return circuitBreakers.computeIfAbsent(host, h -> new CircuitBreaker(h, circuitFailureThreshold,
+                circuitCooldownMs, circuitHalfOpenProbes));
+    }
+
+    private HostLimiter limiterFor(URI uri) {
+        return hostLimiters.computeIfAbsent(hostKey(uri), h -> new HostLimiter(h, defaultMaxInFlightPerHost,
+                defaultRequestsPerSecondPerHost, adaptiveHostLimits, limiterTimer));
+    }
+
+    private HttpTransport transport(Transport transport) {
+        if (transport == null)
+            throw new IllegalArgumentException("No transport selected");
+        return switch (transport) {
+            case JDK -> transports.get(Transport.JDK);
+            case APACHE -> transports.computeIfAbsent(Transport.APACHE, t -> {
+                HttpTransport created = new ApacheHttpTransport(connectTimeoutMs, apacheMaxConnectionsPerRoute,
+                        apacheMaxConnectionsTotal, apacheKeepAliveSeconds);
+                routeLimits.forEach(created::configureRoute);
+                return created;
+            });
+        };
+    }
+
+    private CompletableFuture<TransportResponse> send(HttpTransport transport, TransportRequest request,
+                                                      HostLimiter limiter, CircuitBreaker breaker, long probe,
+                                                      CancelScope cancelScope) {
+        if (cancelScope != null && cancelScope.isCancelled()) {
+            limiter.release();
+            breaker.releaseProbe(probe);
+            return CompletableFuture.failedFuture(new RunCancelledException(cancelScope.skipReason()));
+        }
+
+        long start = System.nanoTime();
+        try {
+            CompletableFuture<TransportResponse> exchange = transport.send(request);
+            if (cancelScope != null)
+                cancelScope.track(exchange);
+            return exchange.whenComplete((r, e) -> settle(r, e, System.nanoTime() - start, limiter, breaker, probe));
+        } catch (RuntimeException e) {
+            limiter.release();
+            breaker.releaseProbe(probe);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<TransportResponse> sendOnVirtualThread(TransportRequest request, HostLimiter limiter,
+                                                                     CircuitBreaker breaker, long probe,
+                                                                     CancelScope cancelScope) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return sendBlocking(request, limiter, breaker, probe, cancelScope);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, virtualExecutor);
+        } catch (RejectedExecutionException e) {
+            limiter.release();
+            breaker.releaseProbe(probe);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private TransportResponse sendBlocking(TransportRequest request, HostLimiter limiter, CircuitBreaker breaker,
+                                           long probe, CancelScope cancelScope)
+            throws IOException, InterruptedException {
+        if (cancelScope != null && cancelScope.isCancelled()) {
+            limiter.release();
+            breaker.releaseProbe(probe);
+            throw new RunCancelledException(cancelScope.skipReason());
+        }
+
+        CompletableFuture<Void> abort = new CompletableFuture<>();
+        if (cancelScope != null)
+            cancelScope.track(abort);
+        long start = System.nanoTime();
+        TransportResponse response = null;
+        Throwable error = null;
+        try {
+            response = blockingTransport.execute(request, abort);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            abort.complete(null);
+            settle(response, error, System.nanoTime() - start, limiter, breaker, probe);
+        }
+    }
+
+    private void settle(TransportResponse r, Throwable e, long latency, HostLimiter limiter, CircuitBreaker breaker,
+                        long probe) {
+        if (r != null) {
+            limiter.onResponse(r.getStatusCode(), latency, retryAfterNanos(r));
+            breaker.onSuccess();
+        } else if (!(unwrap(e) instanceof RunCancelledException) && !(unwrap(e) instanceof InterruptedException)) {
+            limiter.onError(latency);
+            Throwable cause = unwrap(e);
+            if (breaker.onFailure(String.valueOf(cause.getMessage())))
+                limiter.rejectQueued(new CircuitOpenException(breaker.reason()));
+        } else {
+            breaker.releaseProbe(probe);
+        }
+        limiter.release();
+    }
+
+    private long retryAfterNanos(TransportResponse response) {
+        String value = response.firstHeader("Retry-After");
+        if (value == null || value.isBlank())
+            return 0;
+        try {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(value.trim()));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            long at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, at - System.currentTimeMillis()));
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    private TransportRequest buildRequest(ApiRequest apiRequest) {
+        URI uri = apiRequest.getUri() != null ? apiRequest.getUri() : URI.create(apiRequest.getUrl());
+        String method = apiRequest.getMethod();
+
+        Map<String, String> headers = apiRequest.getPreparedHeaders();
+        if (headers == null) {
+            headers = new HashMap<>();
+            if (apiRequest.getHeaders() != null) {
+                headers.putAll(apiRequest.getHeaders());
             }
 
+            String cookie = apiRequest.getCookie();
             if (cookie != null && !cookie.isEmpty()) {
-                builder.header("Cookie", cookie);
+                headers.put("Cookie", cookie);
             }
 
-            HttpRequest request = builder.build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return new ApiResponse(response.statusCode(), response.body());
+            if (apiRequest.isCompression()) {
+                headers.put("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING);
+            }
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new ApiResponse(0, "Error: " + e.getMessage());
+        RequestBody body = apiRequest.getBody();
+        if (body == null && ("POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method))) {
+            body = RequestBody.ofString("{}");
         }
+        long maxBytes = apiRequest.getMaxResponseBytes() > 0 ? apiRequest.getMaxResponseBytes()
+                : defaultMaxResponseBytes;
+
+        long timeoutMs = apiRequest.getTimeoutMs() > 0 ? apiRequest.getTimeoutMs() : defaultRequestTimeoutMs;
+        if (apiRequest.getDeadlineNanos() != 0) {
+            long remainingMs = TimeUnit.NANOSECONDS.toMillis(apiRequest.getDeadlineNanos() - System.nanoTime());
+            timeoutMs = Math.max(1, Math.min(timeoutMs, remainingMs));
+        }
+
+        return new TransportRequest(uri, method, headers, body, timeoutMs, maxBytes);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    ApiResponse errorResponse(Throwable e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof CircuitOpenException)
+            return new ApiResponse(Outcome.CIRCUIT_OPEN, 0, cause.getMessage());
+        if (cause instanceof RunDeadlineExceededException)
+            return new ApiResponse(Outcome.DEADLINE_EXCEEDED, 0, cause.getMessage());
+        if (cause instanceof RunCancelledException)
+            return new ApiResponse(Outcome.CANCELLED, 0, cause.getMessage());
+        String message = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return new ApiResponse(Outcome.ERROR, 0, "Error: " + message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        limiterTimer.shutdownNow();
+        transports.values().forEach(HttpTransport::close);
+        blockingTransport.close();
+        virtualExecutor.shutdownNow();
     }
 }
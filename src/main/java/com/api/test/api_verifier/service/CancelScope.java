@@ -0,0 +1,100 @@
+package com.api.test.api_verifier.service;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class CancelScope {
+
+    private final CancelScope parent;
+    private final String name;
+    private final int maxFailures;
+    private final Runnable onCancel;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile String reason;
+
+    private CancelScope(CancelScope parent, String name, int maxFailures, Runnable onCancel) {
+        this.parent = parent;
+        this.name = name;
+        this.maxFailures = maxFailures;
+        this.onCancel = onCancel;
+    }
+
+    static CancelScope root(String name, int maxFailures, Runnable onCancel) {
+        return new CancelScope(null, name, maxFailures, onCancel);
+    }
+
+    public CancelScope child(String name, int maxFailures) {
+        return new CancelScope(this, name, maxFailures, null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    public boolean isCancelled() {
+        return reason() != null;
+    }
+
+    public String reason() {
+        for (CancelScope scope = this; scope != null; scope = scope.parent) {
+            String r = scope.reason;
+            if (r != null)
+                return r;
+        }
+        return null;
+    }
+
+    public String skipReason() {
+        String r = reason();
+        return r != null ? "Skipped because " + r : null;
+    }
+
+    public void recordFailure() {
+        for (CancelScope scope = this; scope != null; scope = scope.parent) {
+            int count = scope.failures.incrementAndGet();
+            if (scope.maxFailures > 0 && count >= scope.maxFailures)
+                scope.cancel(scope.name + " reached " + count + " failed testcase(s)");
+        }
+    }
+
+    public boolean cancel(String reason) {
+        synchronized (this) {
+            if (this.reason != null)
+                return false;
+            this.reason = reason;
+        }
+
+        RunCancelledException cancelled = new RunCancelledException(skipReason());
+        for (CompletableFuture<?> future : inFlight)
+            future.completeExceptionally(cancelled);
+        inFlight.clear();
+
+        CancelScope root = this;
+        while (root.parent != null)
+            root = root.parent;
+        if (root.onCancel != null)
+            root.onCancel.run();
+        return true;
+    }
+
+    public <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        for (CancelScope scope = this; scope != null; scope = scope.parent)
+            scope.inFlight.add(future);
+        future.whenComplete((r, e) -> {
+            for (CancelScope scope = this; scope != null; scope = scope.parent)
+                scope.inFlight.remove(future);
+        });
+
+        String r = reason();
+        if (r != null)
+            future.completeExceptionally(new RunCancelledException("Skipped because " + r));
+        return future;
+    }
+}
@@ -0,0 +1,82 @@
+package com.api.test.api_verifier.service;
+
+import java.util.Arrays;
+import java.util.Map;
+
+public final class CriticalPath {
+
+    private final long[] cost;
+    private final long[] remaining;
+    private final int knownTests;
+    private final long predictedMs;
+
+    private CriticalPath(long[] cost, long[] remaining, int knownTests, long predictedMs) {
+        this.cost = cost;
+        this.remaining = remaining;
+        this.knownTests = knownTests;
+        this.predictedMs = predictedMs;
+    }
+
+    public static CriticalPath of(TestPlan plan, Map<String, Long> latencies) {
+        int n = plan.size();
+        long[] cost = new long[n];
+        boolean[] known = new boolean[n];
+        long[] observed = new long[n];
+        int knownTests = 0;
+
+        for (int i = 0; i < n; i++) {
+            TestPlan.Node node = plan.node(i);
+            Long ms = latencies.get(LatencyHistory.key(node.getSuite(), node.getId()));
+            if (ms != null && plan.getGraph().invalidReason(i) == null) {
+                known[i] = true;
+                cost[i] = ms;
+                observed[knownTests++] = ms;
+            }
+        }
+
+        long fallback = 1;
+        if (knownTests > 0) {
+            long[] sorted = Arrays.copyOf(observed, knownTests);
+            Arrays.sort(sorted);
+            fallback = Math.max(1, sorted[knownTests / 2]);
+        }
+        for (int i = 0; i < n; i++) {
+            if (!known[i] && plan.getGraph().invalidReason(i) == null)
+                cost[i] = fallback;
+        }
+
+        long[] remaining = plan.getGraph().longestPaths(cost);
+        long longest = 0;
+        for (long r : remaining)
+            longest = Math.max(longest, r);
+        return new CriticalPath(cost, remaining, knownTests, knownTests > 0 ? longest : -1);
+    }
+
+    public long[] getRemaining() {
+        return remaining;
+    }
+
+    public long remaining(int index) {
+        return remaining[index];
+    }
+
+    public long cost(int index) {
+        return cost[index];
+    }
+
+    public int getKnownTests() {
+        return knownTests;
+    }
+
+    public int size() {
+        return remaining.length;
+    }
+
+    public boolean hasHistory() {
+        return knownTests > 0;
+    }
+
+    public long getPredictedMs() {
+        return predictedMs;
+    }
+}
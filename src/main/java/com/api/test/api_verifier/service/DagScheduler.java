@@ -0,0 +1,154 @@
+package com.api.test.api_verifier.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+public final class DagScheduler {
+
+    public interface Task {
+        CompletableFuture<TestStatus> run(int index);
+    }
+
+    public interface SkipHandler {
+        void skip(int index, String reason);
+    }
+
+    private static final int PENDING = 0;
+    private static final int PASSED = 1;
+    private static final int SKIPPED = 2;
+    private static final int FAILED = 3;
+
+    private final TestGraph graph;
+    private final Task task;
+    private final SkipHandler skipHandler;
+    private final Supplier<String> cancelled;
+    private final long[] priority;
+    private final AtomicIntegerArray remaining;
+    private final AtomicIntegerArray blocked;
+    private final AtomicIntegerArray state;
+    private final AtomicInteger unresolved;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private DagScheduler(TestGraph graph, Task task, SkipHandler skipHandler, Supplier<String> cancelled,
+                         long[] priority) {
+        this.graph = graph;
+        this.task = task;
+        this.skipHandler = skipHandler;
+        this.cancelled = cancelled;
+        this.priority = priority;
+        int n = graph.size();
+        this.remaining = new AtomicIntegerArray(n);
+        this.blocked = new AtomicIntegerArray(n);
+        this.state = new AtomicIntegerArray(n);
+        this.unresolved = new AtomicInteger(n);
+        for (int i = 0; i < n; i++)
+            remaining.set(i, graph.inDegree(i));
+    }
+
+    public static CompletableFuture<Void> run(TestGraph graph, Task task, SkipHandler skipHandler) {
+        return run(graph, task, skipHandler, () -> null);
+    }
+
+    public static CompletableFuture<Void> run(TestGraph graph, Task task, SkipHandler skipHandler,
+                                              Supplier<String> cancelled) {
+        return run(graph, task, skipHandler, cancelled, null);
+    }
+
+    public static CompletableFuture<Void> run(TestGraph graph, Task task, SkipHandler skipHandler,
+                                              Supplier<String> cancelled, long[] priority) {
+        DagScheduler scheduler = new DagScheduler(graph, task, skipHandler, cancelled, priority);
+        if (graph.size() == 0)
+            return CompletableFuture.completedFuture(null);
+
+        List<Integer> invalid = new ArrayList<>();
+        for (int i = 0; i < graph.size(); i++) {
+            String reason = graph.invalidReason(i);
+            if (reason != null && scheduler.state.compareAndSet(i, PENDING, SKIPPED)) {
+                skipHandler.skip(i, reason);
+                invalid.add(i);
+            }
+        }
+        for (int i : invalid)
+            scheduler.release(i, SKIPPED);
+
+        List<Integer> roots = new ArrayList<>();
+        for (int root : graph.roots())
+            roots.add(root);
+        scheduler.startAll(roots);
+        return scheduler.done;
+    }
+
+    private void startAll(List<Integer> ready) {
+        if (priority != null && ready.size() > 1)
+            ready.sort((a, b) -> Long.compare(priority[b], priority[a]));
+        for (int index : ready)
+            start(index);
+    }
+
+    private void start(int index) {
+        if (state.get(index) != PENDING)
+            return;
+
+        CompletableFuture<TestStatus> result;
+        try {
+            result = task.run(index);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((status, error) -> {
+            if (error != null || status == null)
+                resolve(index, FAILED);
+            else
+                resolve(index, switch (status) {
+                    case PASSED -> PASSED;
+                    case FAILED -> FAILED;
+                    case SKIPPED -> SKIPPED;
+                });
+        });
+    }
+
+    private void resolve(int index, int outcome) {
+        if (state.compareAndSet(index, PENDING, outcome))
+            release(index, outcome);
+    }
+
+    private void release(int index, int outcome) {
+        ArrayDeque<Integer> skipped = new ArrayDeque<>();
+        List<Integer> ready = new ArrayList<>();
+        releaseChildren(index, outcome, skipped, ready);
+
+        while (!skipped.isEmpty()) {
+            int next = skipped.poll();
+            if (!state.compareAndSet(next, PENDING, SKIPPED))
+                continue;
+            String cancelReason = cancelled.get();
+            skipHandler.skip(next, cancelReason != null ? cancelReason
+                    : blocked.get(next) == FAILED ? "Skipped because one of the parent testcase failed"
+                    : "Skipped because Parent testcase skipped");
+            releaseChildren(next, SKIPPED, skipped, ready);
+        }
+        startAll(ready);
+    }
+
+    private void releaseChildren(int index, int outcome, ArrayDeque<Integer> skipped, List<Integer> ready) {
+        for (int e = graph.childStart(index); e < graph.childEnd(index); e++) {
+            int child = graph.child(e);
+            if (outcome != PASSED)
+                blocked.accumulateAndGet(child, outcome, Math::max);
+            if (remaining.decrementAndGet(child) != 0)
+                continue;
+            if (blocked.get(child) != PENDING)
+                skipped.add(child);
+            else
+                ready.add(child);
+        }
+
+        if (unresolved.decrementAndGet() == 0)
+            done.complete(null);
+    }
+}
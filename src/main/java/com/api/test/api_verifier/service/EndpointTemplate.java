@@ -0,0 +1,103 @@
+package com.api.test.api_verifier.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public final class EndpointTemplate {
+
+    private final String source;
+    private final boolean absolute;
+    private final String[] literals;
+    private final String[] variables;
+
+    private EndpointTemplate(String source, String[] literals, String[] variables) {
+        this.source = source;
+        this.absolute = source.startsWith("http");
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    public static EndpointTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int literalStart = 0;
+        int i = 0;
+        while (i < source.length()) {
+            int open = source.indexOf('{', i);
+            if (open < 0)
+                break;
+            int close = open + 1;
+            while (close < source.length() && isNameChar(source.charAt(close)))
+                close++;
+            if (close == open + 1 || close >= source.length() || source.charAt(close) != '}') {
+                i = open + 1;
+                continue;
+            }
+            literals.add(source.substring(literalStart, open));
+            variables.add(source.substring(open + 1, close));
+            literalStart = close + 1;
+            i = literalStart;
+        }
+        literals.add(source.substring(literalStart));
+        return new EndpointTemplate(source, literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public boolean isAbsolute() {
+        return absolute;
+    }
+
+    public boolean isStatic() {
+        return variables.length == 0;
+    }
+
+    public List<String> unresolved(Map<String, Object> vars) {
+        List<String> missing = null;
+        for (String variable : variables) {
+            if (vars.get(variable) == null) {
+                if (missing == null)
+                    missing = new ArrayList<>();
+                if (!missing.contains(variable))
+                    missing.add(variable);
+            }
+        }
+        return missing != null ? missing : List.of();
+    }
+
+    public String render(Map<String, Object> vars) {
+        if (variables.length == 0)
+            return source;
+        return appendTo(new StringBuilder(source.length() + 16 * variables.length), literals[0], vars).toString();
+    }
+
+    public String render(String basePrefix, Map<String, Object> vars) {
+        if (absolute || basePrefix.isEmpty())
+            return render(vars);
+
+        String first = literals[0].startsWith("/") ? literals[0].substring(1) : literals[0];
+        StringBuilder sb = new StringBuilder(basePrefix.length() + source.length() + 16 * variables.length)
+                .append(basePrefix);
+        return appendTo(sb, first, vars).toString();
+    }
+
+    private StringBuilder appendTo(StringBuilder sb, String firstLiteral, Map<String, Object> vars) {
+        sb.append(firstLiteral);
+        for (int k = 0; k < variables.length; k++) {
+            Object value = vars.get(variables[k]);
+            if (value != null)
+                sb.append(value);
+            else
+                sb.append('{').append(variables[k]).append('}');
+            sb.append(literals[k + 1]);
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,78 @@
+package com.api.test.api_verifier.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+public final class FanOut<T, R> {
+
+    private final Iterator<T> items;
+    private final int limit;
+    private final BiFunction<Integer, T, CompletableFuture<R>> work;
+    private final List<R> results = new ArrayList<>();
+    private final CompletableFuture<List<R>> done = new CompletableFuture<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private int next;
+    private int inFlight;
+
+    private FanOut(Iterator<T> items, int limit, BiFunction<Integer, T, CompletableFuture<R>> work) {
+        this.items = items;
+        this.limit = Math.max(1, limit);
+        this.work = work;
+    }
+
+    public static <T, R> CompletableFuture<List<R>> run(Iterable<T> items, int limit,
+                                                        BiFunction<Integer, T, CompletableFuture<R>> work) {
+        FanOut<T, R> fanOut = new FanOut<>(items.iterator(), limit, work);
+        fanOut.drain();
+        return fanOut.done;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0)
+            return;
+
+        do {
+            while (!done.isDone()) {
+                int index;
+                T item;
+                synchronized (this) {
+                    if (inFlight >= limit || !items.hasNext())
+                        break;
+                    index = next++;
+                    item = items.next();
+                    results.add(null);
+                    inFlight++;
+                }
+                launch(index, item);
+            }
+            synchronized (this) {
+                if (inFlight == 0 && !items.hasNext())
+                    done.complete(results);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private void launch(int index, T item) {
+        CompletableFuture<R> result;
+        try {
+            result = work.apply(index, item);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                done.completeExceptionally(error);
+                return;
+            }
+            synchronized (this) {
+                results.set(index, value);
+                inFlight--;
+            }
+            drain();
+        });
+    }
+}
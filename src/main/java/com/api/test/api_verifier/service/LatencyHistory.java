@@ -0,0 +1,90 @@
+package com.api.test.api_verifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.*;
+
+@Service
+public class LatencyHistory {
+
+    private static final String RESULTS_DIR = Paths.get(System.getProperty("user.home"), "testiq", "results")
+            .toString();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final int maxRuns;
+
+    private String signature = "";
+    private Map<String, Long> latencies = Collections.emptyMap();
+
+    public LatencyHistory(@Value("${testiq.history.runs:10}") int maxRuns) {
+        this.maxRuns = Math.max(1, maxRuns);
+    }
+
+    public static String key(String suite, int id) {
+        return suite + "#" + id;
+    }
+
+    public synchronized Map<String, Long> latencies() {
+        File[] files = new File(RESULTS_DIR).listFiles((d, name) -> ResultStorage.isRunFile(name));
+        if (files == null || files.length == 0)
+            return Collections.emptyMap();
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        List<File> recent = Arrays.asList(files).subList(0, Math.min(maxRuns, files.length));
+
+        StringBuilder sig = new StringBuilder();
+        for (File f : recent)
+            sig.append(f.getName()).append(':').append(f.lastModified()).append(';');
+        if (sig.toString().equals(signature))
+            return latencies;
+
+        Map<String, List<Long>> samples = new HashMap<>();
+        for (File f : recent) {
+            try {
+                collect(mapper.readTree(f).path("details"), samples);
+            } catch (Exception ignored) {
+            }
+        }
+
+        Map<String, Long> medians = new HashMap<>(samples.size() * 2);
+        samples.forEach((key, values) -> {
+            Collections.sort(values);
+            medians.put(key, values.get(values.size() / 2));
+        });
+
+        signature = sig.toString();
+        latencies = Collections.unmodifiableMap(medians);
+        return latencies;
+    }
+
+    private void collect(JsonNode details, Map<String, List<Long>> samples) {
+        for (JsonNode cookies : details) {
+            for (JsonNode cookieEntry : cookies) {
+                for (JsonNode result : cookieEntry.path("results")) {
+                    if (result.path("skipped").asBoolean() || !result.has("id"))
+                        continue;
+
+                    long ms;
+                    if (result.has("durationMs")) {
+                        ms = result.get("durationMs").asLong();
+                    } else {
+                        JsonNode executions = result.path("executions");
+                        if (executions.isEmpty())
+                            continue;
+                        ms = 0;
+                        for (JsonNode ex : executions)
+                            ms += ex.path("totalMs").asLong();
+                    }
+
+                    samples.computeIfAbsent(key(result.path("suite").asText(), result.get("id").asInt()),
+                            k -> new ArrayList<>()).add(Math.max(0, ms));
+                }
+            }
+        }
+    }
+}
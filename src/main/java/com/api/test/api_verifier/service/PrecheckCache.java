@@ -0,0 +1,78 @@
+package com.api.test.api_verifier.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+public class PrecheckCache {
+
+    private static final class Entry {
+        private final CompletableFuture<Boolean> result;
+        private final long createdNanos = System.nanoTime();
+
+        private Entry(CompletableFuture<Boolean> result) {
+            this.result = result;
+        }
+    }
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    PrecheckCache(long ttlMs) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMs));
+    }
+
+    static String key(String ruleKey, String cookie, String baseUrl) {
+        return ruleKey + "\n" + cookie + "\n" + baseUrl;
+    }
+
+    CompletableFuture<Boolean> get(String key, Function<Runnable, CompletableFuture<Boolean>> evaluate) {
+        boolean[] created = {false};
+        Entry entry = entries.compute(key, (k, existing) -> {
+            if (existing != null && !isExpired(existing))
+                return existing;
+            created[0] = true;
+            return new Entry(new CompletableFuture<>());
+        });
+
+        if (!created[0]) {
+            hits.incrementAndGet();
+            return entry.result;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<Boolean> result;
+        try {
+            result = evaluate.apply(() -> entries.remove(key, entry));
+        } catch (Throwable e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((ok, e) -> {
+            if (e != null) {
+                entries.remove(key, entry);
+                entry.result.completeExceptionally(e);
+            } else {
+                entry.result.complete(ok);
+            }
+        });
+        return entry.result;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlNanos > 0 && entry.result.isDone() && System.nanoTime() - entry.createdNanos >= ttlNanos;
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("ttlMs", ttlNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(ttlNanos) : null);
+        m.put("hits", hits.get());
+        m.put("misses", misses.get());
+        return m;
+    }
+}
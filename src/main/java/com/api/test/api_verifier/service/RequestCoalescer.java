@@ -0,0 +1,75 @@
+package com.api.test.api_verifier.service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class RequestCoalescer {
+
+    private final boolean memoize;
+    private final Map<String, CompletableFuture<ApiCaller.ApiResponse>> calls = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    RequestCoalescer(boolean memoize) {
+        this.memoize = memoize;
+    }
+
+    static boolean isCoalescable(ApiCaller.ApiRequest request) {
+        return "GET".equalsIgnoreCase(request.getMethod()) && request.getBody() == null;
+    }
+
+    static String key(ApiCaller.ApiRequest request) {
+        StringBuilder key = new StringBuilder();
+        key.append(request.getMethod().toUpperCase(Locale.ROOT)).append(' ').append(request.getUrl())
+                .append('\n').append(request.getCookie())
+                .append('\n').append(request.getTransport())
+                .append(" timeout=").append(request.getTimeoutMs())
+                .append(" maxBytes=").append(request.getMaxResponseBytes())
+                .append(" compression=").append(request.isCompression());
+        if (request.getHeaders() != null) {
+            new TreeMap<>(request.getHeaders()).forEach((k, v) -> key.append('\n').append(k).append(": ").append(v));
+        }
+        return key.toString();
+    }
+
+    CompletableFuture<ApiCaller.ApiResponse> execute(String key, Supplier<CompletableFuture<ApiCaller.ApiResponse>> call) {
+        CompletableFuture<ApiCaller.ApiResponse> shared = new CompletableFuture<>();
+        CompletableFuture<ApiCaller.ApiResponse> existing = calls.putIfAbsent(key, shared);
+        if (existing != null) {
+            hits.incrementAndGet();
+            return existing;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<ApiCaller.ApiResponse> result;
+        try {
+            result = call.get();
+        } catch (Throwable e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+
+        result.whenComplete((resp, e) -> {
+            if (!memoize || e != null || resp.isTransportFailure() || resp.getSkipReason() != null)
+                calls.remove(key, shared);
+            if (e != null)
+                shared.completeExceptionally(e);
+            else
+                shared.complete(resp);
+        });
+        return shared;
+    }
+
+    public Map<String, Object> describe() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("memoize", memoize);
+        m.put("hits", hits.get());
+        m.put("misses", misses.get());
+        return m;
+    }
+}
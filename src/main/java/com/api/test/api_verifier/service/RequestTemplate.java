@@ -0,0 +1,67 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.http.ContentDecoding;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public final class RequestTemplate {
+
+    private final String baseUrl;
+    private final String basePrefix;
+    private final String cookie;
+    private final Map<String, String> headers;
+    private final Map<String, String> preparedHeaders;
+    private final Map<String, String> compressedHeaders;
+    private final String lane;
+
+    public RequestTemplate(String baseUrl, String cookie, Map<String, String> headers) {
+        this.baseUrl = baseUrl;
+        this.basePrefix = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.cookie = cookie;
+        this.headers = headers != null ? Collections.unmodifiableMap(new HashMap<>(headers)) : Map.of();
+
+        Map<String, String> prepared = new HashMap<>(this.headers);
+        if (cookie != null && !cookie.isEmpty())
+            prepared.put("Cookie", cookie);
+        this.preparedHeaders = Collections.unmodifiableMap(prepared);
+
+        Map<String, String> compressed = new HashMap<>(prepared);
+        compressed.put("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING);
+        this.compressedHeaders = Collections.unmodifiableMap(compressed);
+
+        this.lane = baseUrl + "|" + Objects.hashCode(cookie);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getCookie() {
+        return cookie;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Map<String, String> preparedHeaders(boolean compression) {
+        return compression ? compressedHeaders : preparedHeaders;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public String url(EndpointTemplate endpoint, Map<String, Object> vars) {
+        return endpoint.render(basePrefix, vars);
+    }
+
+    public String url(String endpoint) {
+        if (endpoint.startsWith("http"))
+            return endpoint;
+        return basePrefix + (endpoint.startsWith("/") ? endpoint.substring(1) : endpoint);
+    }
+}
@@ -2,6 +2,7 @@ package com.api.test.api_verifier.service;
 
 import java.io.File;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.springframework.stereotype.Service;
 
@@ -9,6 +10,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 public class ResultStorage {
+
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+
+    public static boolean isValidRunId(String runId) {
+        return runId != null && RUN_ID.matcher(runId).matches();
+    }
+
+    public static boolean isRunFile(String fileName) {
+        return fileName.endsWith(".json") && isValidRunId(fileName.substring(0, fileName.length() - 5));
+    }
+
     public void store(Map<String, Object> result) {
         try {
             String resultsDir = System.getProperty("user.home") + "/testiq/results";
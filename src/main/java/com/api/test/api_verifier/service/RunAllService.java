@@ -1,6 +1,7 @@
 package com.api.test.api_verifier.service;
 
 import com.api.test.api_verifier.model.ApiResult;
+import com.api.test.api_verifier.model.RunOptions;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.CSVReader;
@@ -12,27 +13,41 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.InputStreamReader;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Function;
 
 @Service
 public class RunAllService {
 
     private final TestExecutor testExecutor;
+    private final RunScheduler scheduler;
+    private final ApiCaller apiCaller;
+    private final LatencyHistory latencyHistory;
     private final ObjectMapper mapper = new ObjectMapper();
 
-    public RunAllService(TestExecutor testExecutor) {
+    public RunAllService(TestExecutor testExecutor, RunScheduler scheduler, ApiCaller apiCaller,
+                         LatencyHistory latencyHistory) {
         this.testExecutor = testExecutor;
+        this.scheduler = scheduler;
+        this.apiCaller = apiCaller;
+        this.latencyHistory = latencyHistory;
     }
 
     @Autowired
     TestSuiteService testSuiteService;
 
     @SuppressWarnings("unchecked")
-    public Map<String, Object> runAllTests(MultipartFile headersFile, MultipartFile[] testFiles) throws Exception {
+    public Map<String, Object> runAllTests(MultipartFile headersFile, MultipartFile[] testFiles, RunOptions options)
+            throws Exception {
 
         long startTime = System.currentTimeMillis();
+        String runId = options.getRunId() != null && !options.getRunId().isBlank()
+                ? options.getRunId().trim() : "run_" + startTime;
+        if (!ResultStorage.isValidRunId(runId))
+            throw new IllegalArgumentException("Invalid runId: " + runId);
+        options.validate();
 
         Map<String, Object> response = new LinkedHashMap<>();
-        response.put("runId", "run_" + startTime);
+        response.put("runId", runId);
         response.put("runName", "Run " + startTime);
 
         Map<String, List<Map<String, Object>>> detailsMap = new LinkedHashMap<>();
@@ -76,10 +91,17 @@ public class RunAllService {
         suiteToTests.clear();
         suiteToTests.putAll(sortedSuites);
 
-        int rowThreads = Math.min(Runtime.getRuntime().availableProcessors() * 2, 16);
-        ExecutorService rowExecutor = Executors.newFixedThreadPool(rowThreads);
+        Map<String, TestPlan> suitePlans = new LinkedHashMap<>();
+        suiteToTests.forEach((suiteKey, tests) -> suitePlans.put(suiteKey, testExecutor.compilePlan(tests, options.getRetry())));
 
-        try (CSVReader reader = new CSVReader(new InputStreamReader(headersFile.getInputStream()))) {
+        Map<String, Long> latencies = latencyHistory.latencies();
+        Map<String, CriticalPath> suitePaths = new LinkedHashMap<>();
+        suitePlans.forEach((suiteKey, plan) -> suitePaths.put(suiteKey, CriticalPath.of(plan, latencies)));
+
+        try (RunContext run = scheduler.openRun(runId, options);
+             CSVReader reader = new CSVReader(new InputStreamReader(headersFile.getInputStream()))) {
+
+            apiCaller.openArchive(run);
 
             String[] headerKeys = reader.readNext();
             if (headerKeys == null) {
@@ -108,6 +130,7 @@ public class RunAllService {
             }
 
             List<Callable<Void>> rowTasks = new ArrayList<>();
+            Set<String> runBaseUrls = ConcurrentHashMap.newKeySet();
             String[] dataRow;
             int[] rowIndex = {0};
 
@@ -130,24 +153,40 @@ public class RunAllService {
                         String baseUrl = headers.getOrDefault("baseUrl", "").trim();
                         if (baseUrl.isEmpty())
                             return null;
+                        boolean firstRowForBaseUrl = runBaseUrls.add(baseUrl);
 
                         String userAgent = headers.getOrDefault("userAgent", "").trim();
                         if (!userAgent.isEmpty()) {
                             headers.put("User-Agent", userAgent);
                         }
 
+                        Integer maxInFlight = parseLimit(headers.remove("maxInFlight"), Integer::valueOf);
+                        Double maxRps = parseLimit(headers.remove("maxRps"), Double::valueOf);
+                        if (maxInFlight != null || maxRps != null) {
+                            apiCaller.configureHost(baseUrl, maxInFlight, maxRps);
+                        }
+                        if (firstRowForBaseUrl && run.getReplay() == null) {
+                            apiCaller.prewarm(options.getTransport(), run.isVirtual(), baseUrl,
+                                    options.getPrewarmConnections()).join();
+                        }
+
                         String cookie = headers.remove("cookie");
                         String cookieName = headers.getOrDefault("cookieName", "Unknown");
                         String uniqueCookieId = cookieName + "_"
                                 + (cookie != null ? Integer.toString(cookie.hashCode()) : "r" + currentIndex);
 
-                        for (Map.Entry<String, List<JsonNode>> suiteEntry : suiteToTests.entrySet()) {
+                        RequestTemplate row = new RequestTemplate(baseUrl, cookie, headers);
+                        CancelScope rowScope = run.getCancelScope().child("account row '" + cookieName + "'",
+                                options.getMaxFailuresPerRow());
+
+                        for (Map.Entry<String, TestPlan> suiteEntry : suitePlans.entrySet()) {
 
                             String suiteKey = suiteEntry.getKey();
-                            List<JsonNode> testsForSuite = suiteEntry.getValue();
+                            TestPlan suitePlan = suiteEntry.getValue();
                             long suiteStartTime = System.currentTimeMillis();
-                            List<ApiResult> suiteResults = testExecutor.runSuiteChained(testsForSuite, cookie, headers,
-                                    baseUrl);
+                            CriticalPath suitePath = suitePaths.get(suiteKey);
+                            List<ApiResult> suiteResults = testExecutor.runSuiteChained(suitePlan, suitePath, row,
+                                    rowScope.child("suite '" + suiteKey + "'", options.getMaxFailuresPerSuite()), run);
                             long suiteEndTime = System.currentTimeMillis();
                             long suiteExecutionTimeMs = suiteEndTime - suiteStartTime;
                             List<Map<String, Object>> serialized = new ArrayList<>();
@@ -163,6 +202,9 @@ public class RunAllService {
                                 m.put("name", ar.getName());
                                 m.put("endpoint", ar.getEndpoint());
                                 m.put("fullUrl", ar.getFullUrl());
+                                m.put("attempts", ar.getAttempts());
+                                m.put("durationMs", ar.getDurationMs());
+                                m.put("failureKind", ar.getFailureKind());
 
                                 Map<String, Object> summ = new LinkedHashMap<>();
                                 summ.put("totalChecks", ar.getSummary().getTotalChecks());
@@ -189,6 +231,22 @@ public class RunAllService {
                                 m.put("results", checks);
                                 m.put("skipped", skipped);
 
+                                List<Map<String, Object>> executions = new ArrayList<>();
+                                for (ApiResult.Execution ex : ar.getExecutions()) {
+                                    Map<String, Object> e = new LinkedHashMap<>();
+                                    e.put("fullUrl", ex.getFullUrl());
+                                    e.put("statusCode", ex.getStatusCode());
+                                    e.put("attempts", ex.getAttempts());
+                                    e.put("ttfbMs", ex.getTtfbMs());
+                                    e.put("totalMs", ex.getTotalMs());
+                                    e.put("responseBytes", ex.getResponseBytes());
+                                    e.put("wireBytes", ex.getWireBytes());
+                                    e.put("contentEncoding", ex.getContentEncoding());
+                                    e.put("responseHeaders", ex.getResponseHeaders());
+                                    executions.add(e);
+                                }
+                                m.put("executions", executions);
+
                                 serialized.add(m);
                             }
 
@@ -207,6 +265,8 @@ public class RunAllService {
                             cookieEntry.put("baseUrl", baseUrl);
                             cookieEntry.put("executionTimeMs", suiteExecutionTimeMs);
                             cookieEntry.put("executionTimeSec", suiteExecutionTimeMs / 1000.0);
+                            if (suitePath.hasHistory())
+                                cookieEntry.put("predictedExecutionTimeMs", suitePath.getPredictedMs());
 
                             cookieEntry.put("results", serialized);
 
@@ -255,12 +315,14 @@ public class RunAllService {
                 });
             }
 
-            List<Future<Void>> futures = rowExecutor.invokeAll(rowTasks);
-            rowExecutor.shutdown();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Callable<Void> rowTask : rowTasks) {
+                futures.add(scheduler.submitRow(run, rowTask));
+            }
 
-            for (Future<Void> f : futures) {
+            for (CompletableFuture<Void> f : futures) {
                 try {
-                    f.get();
+                    f.join();
                 } catch (Exception ignored) {
                 }
             }
@@ -577,11 +639,17 @@ public class RunAllService {
             long endTime = System.currentTimeMillis();
             overall.put("executionTimeMs", endTime - startTime);
             overall.put("executionTimeSec", (endTime - startTime) / 1000.0);
+            putPrediction(overall, suitePaths.values(), rowTasks.size(), run);
 
             response.put("details", detailsMap);
             response.put("suites", suiteSummaries);
             response.put("cookies", cookieSummaries);
             response.put("overall", overall);
+            response.put("engine", run.describe(endTime - startTime));
+            response.put("hosts", apiCaller.describeHosts(runBaseUrls, startTime));
+            response.put("transport", run.isVirtual() ? apiCaller.describeBlockingTransport()
+                    : apiCaller.describeTransport(options.getTransport()));
+            response.put("archive", run.describeArchive());
             response.put("startTime", new Date(startTime).toString());
             response.put("endTime", new Date(endTime).toString());
 
@@ -589,6 +657,49 @@ public class RunAllService {
         }
     }
 
+    public boolean cancelRun(String runId) {
+        RunContext run = scheduler.getActiveRuns().get(runId);
+        if (run == null)
+            return false;
+        run.cancel("the run was cancelled by request");
+        return true;
+    }
+
+    private void putPrediction(Map<String, Object> overall, Collection<CriticalPath> paths, int rows,
+                               RunContext run) {
+        long rowMs = 0;
+        int known = 0;
+        int total = 0;
+        for (CriticalPath path : paths) {
+            known += path.getKnownTests();
+            total += path.size();
+            if (path.hasHistory())
+                rowMs += path.getPredictedMs();
+        }
+        if (known == 0) {
+            overall.put("predictedExecutionTimeMs", null);
+            overall.put("predictionCoverage", 0);
+            return;
+        }
+
+        int maxRows = scheduler.getMaxConcurrentRows();
+        int waves = run.isVirtual() ? 1 : (rows + maxRows - 1) / maxRows;
+        long predictedMs = rowMs * Math.max(1, waves);
+        overall.put("predictedExecutionTimeMs", predictedMs);
+        overall.put("predictedExecutionTimeSec", predictedMs / 1000.0);
+        overall.put("predictionCoverage", Math.round((known * 10000.0) / total) / 100.0);
+    }
+
+    private <T> T parseLimit(String value, Function<String, T> parser) {
+        if (value == null || value.isBlank())
+            return null;
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private List<String> extractSuiteOrder(Map<String, Object> node) {
         List<String> order = new ArrayList<>();
@@ -0,0 +1,10 @@
+package com.api.test.api_verifier.service;
+
+public class RunCancelledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public RunCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,203 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.http.ArchiveWriter;
+import com.api.test.api_verifier.http.ReplayTransport;
+import com.api.test.api_verifier.model.RunOptions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RunContext implements AutoCloseable {
+
+    private final String runId;
+    private final RunOptions options;
+    private final RunScheduler scheduler;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger peakPlatformThreads = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger retries = new AtomicInteger();
+    private final AtomicInteger retriesDenied = new AtomicInteger();
+    private final AtomicInteger rejectedByDeadline = new AtomicInteger();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+    private final long deadlineNanos;
+    private final RequestCoalescer coalescer;
+    private final PrecheckCache precheckCache;
+    private final CancelScope cancelScope;
+    private ArchiveWriter recorder;
+    private ReplayTransport replay;
+    private final long heapAtStart;
+    private final int platformThreadsAtStart;
+
+    RunContext(String runId, RunOptions options, RunScheduler scheduler) {
+        this.runId = runId;
+        this.options = options != null ? options : new RunOptions();
+        this.scheduler = scheduler;
+        this.deadlineNanos = this.options.getDeadlineMs() > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.options.getDeadlineMs()) : 0;
+        this.coalescer = this.options.isCoalesceGets() ? new RequestCoalescer(this.options.isMemoizeGets()) : null;
+        this.precheckCache = this.options.isCachePrechecks()
+                ? new PrecheckCache(this.options.getPrecheckCacheTtlMs()) : null;
+        this.cancelScope = CancelScope.root("the run", this.options.getMaxFailuresPerRun(),
+                () -> scheduler.purgeCancelled(this));
+
+        this.platformThreadsAtStart = samplePlatformThreads();
+        this.heapAtStart = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public RunOptions getOptions() {
+        return options;
+    }
+
+    public boolean isVirtual() {
+        return options.getExecutionMode() == RunOptions.ExecutionMode.VIRTUAL;
+    }
+
+    public RequestCoalescer getCoalescer() {
+        return coalescer;
+    }
+
+    public PrecheckCache getPrecheckCache() {
+        return precheckCache;
+    }
+
+    public ArchiveWriter getRecorder() {
+        return recorder;
+    }
+
+    void setRecorder(ArchiveWriter recorder) {
+        this.recorder = recorder;
+    }
+
+    public ReplayTransport getReplay() {
+        return replay;
+    }
+
+    void setReplay(ReplayTransport replay) {
+        this.replay = replay;
+    }
+
+    public Map<String, Object> describeArchive() {
+        if (recorder != null)
+            return recorder.stats();
+        return replay != null ? replay.stats() : null;
+    }
+
+    public CancelScope getCancelScope() {
+        return cancelScope;
+    }
+
+    public boolean cancel(String reason) {
+        return cancelScope.cancel(reason);
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public boolean isPastDeadline() {
+        return deadlineNanos != 0
+                && System.nanoTime() >= deadlineNanos - TimeUnit.MILLISECONDS.toNanos(options.getDeadlineMarginMs());
+    }
+
+    public String deadlineReason() {
+        return "Skipped because the run deadline of " + options.getDeadlineMs() + " ms was reached";
+    }
+
+    RunDeadlineExceededException deadlineExceeded() {
+        rejectedByDeadline.incrementAndGet();
+        return new RunDeadlineExceededException(deadlineReason());
+    }
+
+    boolean tryAcquireSlot() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= options.getMaxConcurrentRequests())
+                return false;
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                requests.incrementAndGet();
+                samplePlatformThreads();
+                return true;
+            }
+        }
+    }
+
+    private int samplePlatformThreads() {
+        int live = ManagementFactory.getThreadMXBean().getThreadCount();
+        peakPlatformThreads.accumulateAndGet(live, Math::max);
+        return live;
+    }
+
+    void releaseSlot() {
+        inFlight.decrementAndGet();
+    }
+
+    void recordResponseBytes(long wire, long decoded) {
+        wireBytes.addAndGet(wire);
+        decodedBytes.addAndGet(decoded);
+    }
+
+    boolean tryConsumeRetry() {
+        int budget = options.getRetryBudget();
+        while (true) {
+            int used = retries.get();
+            if (budget >= 0 && used >= budget) {
+                retriesDenied.incrementAndGet();
+                return false;
+            }
+            if (retries.compareAndSet(used, used + 1))
+                return true;
+        }
+    }
+
+    public Map<String, Object> describe(long executionTimeMs) {
+        samplePlatformThreads();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapNow = memory.getHeapMemoryUsage().getUsed();
+
+        Map<String, Object> engine = new LinkedHashMap<>();
+        engine.put("executionMode", options.getExecutionMode().name());
+        engine.put("maxConcurrentRequests", options.getMaxConcurrentRequests());
+        engine.put("fanOut", options.getFanOut());
+        engine.put("requests", requests.get());
+        engine.put("peakInFlightRequests", peakInFlight.get());
+        engine.put("requestsPerSec",
+                executionTimeMs == 0 ? 0 : Math.round(requests.get() * 100000.0 / executionTimeMs) / 100.0);
+        engine.put("retries", retries.get());
+        engine.put("retryBudget", options.getRetryBudget());
+        engine.put("retriesDeniedByBudget", retriesDenied.get());
+        engine.put("deadlineMs", options.getDeadlineMs() > 0 ? options.getDeadlineMs() : null);
+        engine.put("requestsRejectedByDeadline", rejectedByDeadline.get());
+        engine.put("failedTestcases", cancelScope.getFailures());
+        engine.put("cancellation", cancelScope.reason());
+        engine.put("compression", options.isCompression());
+        engine.put("responseBytesOnWire", wireBytes.get());
+        engine.put("responseBytesDecoded", decodedBytes.get());
+        engine.put("coalescing", coalescer != null ? coalescer.describe() : null);
+        engine.put("precheckCache", precheckCache != null ? precheckCache.describe() : null);
+        engine.put("platformThreadsAtStart", platformThreadsAtStart);
+        engine.put("peakPlatformThreads", peakPlatformThreads.get());
+        engine.put("heapUsedStartMb", heapAtStart / (1024 * 1024));
+        engine.put("heapUsedEndMb", heapNow / (1024 * 1024));
+        return engine;
+    }
+
+    @Override
+    public void close() {
+        scheduler.closeRun(this);
+        if (recorder != null)
+            recorder.close();
+    }
+}
@@ -23,7 +23,7 @@ public class RunQueryService {
         if (!dir.exists())
             return Collections.emptyList();
 
-        File[] files = dir.listFiles((d, name) -> name.startsWith("run_") && name.endsWith(".json"));
+        File[] files = dir.listFiles((d, name) -> ResultStorage.isRunFile(name));
 
         if (files == null || files.length == 0)
             return Collections.emptyList();
@@ -39,8 +39,7 @@ public class RunQueryService {
 
         for (File file : files) {
 
-            String name = file.getName();
-            long ts = Long.parseLong(name.substring(4, name.length() - 5));
+            long ts = timestampOf(file);
 
             boolean include = switch (filter) {
                 case "last7" -> ts >= last7;
@@ -62,8 +61,8 @@ public class RunQueryService {
             return Collections.emptyList();
 
         filtered.sort((f1, f2) -> {
-            long t1 = Long.parseLong(f1.getName().substring(4, f1.getName().length() - 5));
-            long t2 = Long.parseLong(f2.getName().substring(4, f2.getName().length() - 5));
+            long t1 = timestampOf(f1);
+            long t2 = timestampOf(f2);
 
             return sort.equalsIgnoreCase("asc") ? Long.compare(t1, t2) : Long.compare(t2, t1);
         });
@@ -140,4 +139,15 @@ public class RunQueryService {
 
         return resultList;
     }
+
+    private long timestampOf(File file) {
+        String name = file.getName();
+        if (name.startsWith("run_")) {
+            try {
+                return Long.parseLong(name.substring(4, name.length() - 5));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return file.lastModified();
+    }
 }
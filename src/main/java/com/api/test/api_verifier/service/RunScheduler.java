@@ -0,0 +1,262 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.model.RunOptions;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Service
+public class RunScheduler {
+
+    private final int maxConcurrentRequests;
+    private final int maxConcurrentRows;
+    private final ExecutorService rowExecutor;
+    private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Object lock = new Object();
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private final ArrayDeque<Lane> rotation = new ArrayDeque<>();
+    private final Map<String, RunContext> activeRuns = new ConcurrentHashMap<>();
+    private final AtomicInteger dispatchRequests = new AtomicInteger();
+    private long sequence;
+    private int running;
+    private boolean shutdown;
+
+    public RunScheduler(@Value("${testiq.scheduler.max-concurrent-requests:256}") int maxConcurrentRequests,
+                        @Value("${testiq.scheduler.max-concurrent-rows:16}") int maxConcurrentRows) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+        this.maxConcurrentRows = Math.max(1, maxConcurrentRows);
+        this.rowExecutor = Executors.newFixedThreadPool(this.maxConcurrentRows);
+    }
+
+    private static final class Lane {
+        private final String key;
+        private final RunContext run;
+        private final PriorityQueue<Task<?>> queue = new PriorityQueue<>(
+                Comparator.<Task<?>>comparingLong(t -> -t.priority).thenComparingLong(t -> t.sequence));
+
+        private Lane(String key, RunContext run) {
+            this.key = key;
+            this.run = run;
+        }
+    }
+
+    private static final class Task<T> {
+        private final RunContext run;
+        private final CancelScope scope;
+        private final long priority;
+        private final Supplier<CompletableFuture<T>> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private long sequence;
+
+        private Task(RunContext run, CancelScope scope, long priority, Supplier<CompletableFuture<T>> work) {
+            this.run = run;
+            this.scope = scope != null ? scope : run.getCancelScope();
+            this.priority = priority;
+            this.work = work;
+        }
+    }
+
+    public RunContext openRun(String runId, RunOptions options) {
+        RunContext run = new RunContext(runId, options, this);
+        if (activeRuns.putIfAbsent(runId, run) != null)
+            throw new IllegalStateException("Run " + runId + " is already running");
+        return run;
+    }
+
+    void closeRun(RunContext run) {
+        activeRuns.remove(run.getRunId());
+
+        List<Task<?>> dropped = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<Lane> it = rotation.iterator();
+            while (it.hasNext()) {
+                Lane lane = it.next();
+                if (lane.run != run)
+                    continue;
+                dropped.addAll(lane.queue);
+                lane.queue.clear();
+                lanes.remove(lane.key);
+                it.remove();
+            }
+        }
+        dropped.forEach(t -> t.result.completeExceptionally(new CancellationException("Run closed")));
+    }
+
+    void purgeCancelled(RunContext run) {
+        List<Task<?>> cancelled = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<Lane> it = rotation.iterator();
+            while (it.hasNext()) {
+                Lane lane = it.next();
+                if (lane.run != run)
+                    continue;
+                lane.queue.removeIf(t -> {
+                    if (!t.scope.isCancelled())
+                        return false;
+                    cancelled.add(t);
+                    return true;
+                });
+                if (lane.queue.isEmpty()) {
+                    lanes.remove(lane.key);
+                    it.remove();
+                }
+            }
+        }
+        cancelled.forEach(t -> t.result.completeExceptionally(new RunCancelledException(t.scope.skipReason())));
+    }
+
+    public int getMaxConcurrentRows() {
+        return maxConcurrentRows;
+    }
+
+    public Map<String, RunContext> getActiveRuns() {
+        return Collections.unmodifiableMap(activeRuns);
+    }
+
+    public <T> CompletableFuture<T> submitRow(RunContext run, Callable<T> row) {
+        Executor executor = run.isVirtual() ? virtualExecutor : rowExecutor;
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return row.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(RunContext run, String laneKey, Supplier<CompletableFuture<T>> work) {
+        return submit(run, laneKey, null, work);
+    }
+
+    public <T> CompletableFuture<T> submit(RunContext run, String laneKey, CancelScope scope,
+                                           Supplier<CompletableFuture<T>> work) {
+        return submit(run, laneKey, scope, 0, work);
+    }
+
+    public <T> CompletableFuture<T> submit(RunContext run, String laneKey, CancelScope scope, long priority,
+                                           Supplier<CompletableFuture<T>> work) {
+        Task<T> task = new Task<>(run, scope, priority, work);
+        synchronized (lock) {
+            if (shutdown) {
+                task.result.completeExceptionally(new RejectedExecutionException("Run scheduler is shut down"));
+                return task.result;
+            }
+            if (run.isPastDeadline()) {
+                task.result.completeExceptionally(run.deadlineExceeded());
+                return task.result;
+            }
+            if (task.scope.isCancelled()) {
+                task.result.completeExceptionally(new RunCancelledException(task.scope.skipReason()));
+                return task.result;
+            }
+            String key = run.getRunId() + "|" + laneKey;
+            Lane lane = lanes.computeIfAbsent(key, k -> new Lane(k, run));
+            if (lane.queue.isEmpty())
+                rotation.addLast(lane);
+            task.sequence = sequence++;
+            lane.queue.add(task);
+        }
+        dispatch();
+        return task.result;
+    }
+
+    private void dispatch() {
+        if (dispatchRequests.getAndIncrement() != 0)
+            return;
+
+        do {
+            List<Task<?>> ready = new ArrayList<>();
+            List<Task<?>> expired = new ArrayList<>();
+            List<Task<?>> cancelled = new ArrayList<>();
+            synchronized (lock) {
+                int saturated = 0;
+                while (running < maxConcurrentRequests && !rotation.isEmpty() && saturated < rotation.size()) {
+                    Lane lane = rotation.pollFirst();
+                    if (lane.run.isPastDeadline()) {
+                        expired.addAll(lane.queue);
+                        lane.queue.clear();
+                        lanes.remove(lane.key);
+                        continue;
+                    }
+                    if (lane.queue.peek().scope.isCancelled()) {
+                        cancelled.add(lane.queue.poll());
+                    } else if (!lane.run.tryAcquireSlot()) {
+                        rotation.addLast(lane);
+                        saturated++;
+                        continue;
+                    } else {
+                        saturated = 0;
+                        ready.add(lane.queue.poll());
+                        running++;
+                    }
+                    if (lane.queue.isEmpty())
+                        lanes.remove(lane.key);
+                    else
+                        rotation.addLast(lane);
+                }
+            }
+            expired.forEach(t -> t.result.completeExceptionally(t.run.deadlineExceeded()));
+            cancelled.forEach(t -> t.result.completeExceptionally(new RunCancelledException(t.scope.skipReason())));
+            ready.forEach(this::start);
+        } while (dispatchRequests.decrementAndGet() != 0);
+    }
+
+    private <T> void start(Task<T> task) {
+        CompletableFuture<T> future;
+        try {
+            future = task.work.get();
+        } catch (Throwable e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((r, e) -> {
+            task.run.releaseSlot();
+            synchronized (lock) {
+                running--;
+            }
+            if (e != null)
+                task.result.completeExceptionally(e);
+            else
+                task.result.complete(r);
+            dispatch();
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Task<?>> dropped = new ArrayList<>();
+        synchronized (lock) {
+            shutdown = true;
+            for (Lane lane : rotation)
+                dropped.addAll(lane.queue);
+            rotation.clear();
+            lanes.clear();
+        }
+        dropped.forEach(t -> t.result.completeExceptionally(new RejectedExecutionException("Run scheduler is shut down")));
+
+        rowExecutor.shutdown();
+        virtualExecutor.shutdown();
+        try {
+            if (!rowExecutor.awaitTermination(10, TimeUnit.SECONDS))
+                rowExecutor.shutdownNow();
+            if (!virtualExecutor.awaitTermination(10, TimeUnit.SECONDS))
+                virtualExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            rowExecutor.shutdownNow();
+            virtualExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
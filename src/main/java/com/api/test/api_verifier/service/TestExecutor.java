@@ -1,6 +1,9 @@
 package com.api.test.api_verifier.service;
 
+import com.api.test.api_verifier.http.RequestBody;
+import com.api.test.api_verifier.http.TransportTiming;
 import com.api.test.api_verifier.model.ApiResult;
+import com.api.test.api_verifier.model.RetryPolicy;
 import com.api.test.api_verifier.validator.*;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,23 +11,25 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 
 import org.springframework.stereotype.Component;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
-import java.io.InputStream;
-import java.nio.file.Paths;
+import java.net.URI;
 import java.util.*;
 import java.util.concurrent.*;
-
-enum TestStatus {
-    PASSED, FAILED, SKIPPED
-}
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
 
 @Component
 public class TestExecutor {
 
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ApiCaller apiCaller = new ApiCaller();
+    private final ApiCaller apiCaller;
+    private final RunScheduler scheduler;
+
+    public TestExecutor(ApiCaller apiCaller, RunScheduler scheduler) {
+        this.apiCaller = apiCaller;
+        this.scheduler = scheduler;
+    }
 
     public boolean validateCookie(String baseUrl, String cookie, Map<String, String> headers) {
         try {
@@ -47,9 +52,13 @@ public class TestExecutor {
                 throw new IllegalStateException("Validator endpoint missing");
             }
 
-            String fullUrl = buildURL(baseUrl, endpoint);
-            ApiCaller.ApiResponse resp =
-                    apiCaller.callApi(fullUrl, method, cookie, headers);
+            String fullUrl = new RequestTemplate(baseUrl, cookie, headers).url(endpoint);
+            ApiCaller.ApiRequest request = new ApiCaller.ApiRequest(fullUrl, method, cookie, headers);
+            Object timeoutMs = ((Map<?, ?>) cfg).get("timeoutMs");
+            if (timeoutMs != null) {
+                request.setTimeoutMs(Long.parseLong(timeoutMs.toString()));
+            }
+            ApiCaller.ApiResponse resp = apiCaller.callApi(request);
 
             return resp.getStatusCode() == 200;
 
@@ -104,391 +113,238 @@ public class TestExecutor {
         savePrechecks();
     }
 
-    public List<ApiResult> runTestsFromJson(MultipartFile file, String cookie, Map<String, String> headers,
-                                            String baseUrl) {
-        List<ApiResult> results = new ArrayList<>();
-
-        try (InputStream inputStream = file.getInputStream()) {
-            JsonNode root = objectMapper.readTree(inputStream);
-            JsonNode testCases = root.get("testCases");
-            if (testCases == null || !testCases.isArray())
-                throw new IllegalArgumentException("Invalid JSON: Missing 'testCases' array");
-
-            int threads = Math.min(Runtime.getRuntime().availableProcessors() * 2, 8);
-            ExecutorService executor = Executors.newFixedThreadPool(threads);
-            List<Callable<ApiResult>> tasks = new ArrayList<>();
-
-            for (JsonNode test : testCases) {
-                tasks.add(() -> runSingleTest(test, cookie, headers, baseUrl));
-            }
-
-            List<Future<ApiResult>> futures = executor.invokeAll(tasks);
-            executor.shutdown();
-
-            for (Future<ApiResult> f : futures) {
-                ApiResult res = f.get();
-                if (res != null)
-                    results.add(res);
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return results;
+    public synchronized TestPlan compilePlan(List<JsonNode> tests, RetryPolicy baseRetry) {
+        return TestPlan.compile(tests, precheckRules::get, baseRetry);
     }
 
-    public List<ApiResult> runSuiteChained(List<JsonNode> tests, String cookie, Map<String, String> headers,
-                                           String baseUrl) {
-
-        Map<Integer, JsonNode> map = new LinkedHashMap<>();
-        Map<Integer, List<Integer>> childMap = new HashMap<>();
-        Map<String, Object> shared = new ConcurrentHashMap<>();
-        Map<Integer, TestStatus> status = new ConcurrentHashMap<>();
-        Set<String> requiredKeys = new HashSet<>();
-
-        for (JsonNode t : tests) {
-            int id = t.get("id").asInt();
-            map.put(id, t);
-
-            if (t.has("parentId") && !t.get("parentId").isNull()) {
-                JsonNode p = t.get("parentId");
-
-                if (p.isArray()) {
-                    for (JsonNode pid : p)
-                        childMap.computeIfAbsent(pid.asInt(), a -> new ArrayList<>()).add(id);
-                } else {
-                    childMap.computeIfAbsent(p.asInt(), a -> new ArrayList<>()).add(id);
-                }
-            }
-            if (t.has("requires")) {
-                for (JsonNode r : t.get("requires"))
-                    requiredKeys.add(r.isTextual() ? r.asText() : r.get("name").asText());
-            }
-        }
-
-        List<ApiResult> results = Collections.synchronizedList(new ArrayList<>());
-        Map<String, List<Integer>> suiteRoots = new LinkedHashMap<>();
-        for (Integer id : map.keySet()) {
-            JsonNode t = map.get(id);
-            boolean isRoot = !t.has("parentId") || t.get("parentId").isNull();
-
-            if (!isRoot)
-                continue;
-
-            String rawSuite = t.has("suite") ? t.get("suite").asText() : "DEFAULT";
-            String suite = rawSuite.contains("/") ? rawSuite.substring(0, rawSuite.indexOf("/")).trim() : rawSuite;
-            suiteRoots.computeIfAbsent(suite, a -> new ArrayList<>()).add(id);
-        }
-        int cpuCores = Runtime.getRuntime().availableProcessors();
-        ExecutorService suiteExecutor = Executors.newFixedThreadPool(Math.min(suiteRoots.size(), cpuCores));
-
-        List<Future<List<ApiResult>>> suiteFutures = new ArrayList<>();
-
-        for (var entry : suiteRoots.entrySet()) {
-            List<Integer> roots = entry.getValue();
+    public List<ApiResult> runSuiteChained(TestPlan plan, CriticalPath path, RequestTemplate row, CancelScope cancel,
+                                           RunContext run) {
 
-            suiteFutures.add(suiteExecutor.submit(() -> {
-                List<ApiResult> suiteResults = Collections.synchronizedList(new ArrayList<>());
+        AtomicReferenceArray<VariableContext> scopes = new AtomicReferenceArray<>(plan.size());
+        List<List<ApiResult>> suiteResults = new ArrayList<>();
+        for (int i = 0; i < plan.getSuites().size(); i++)
+            suiteResults.add(Collections.synchronizedList(new ArrayList<>()));
 
-                int threads = Runtime.getRuntime().availableProcessors();
-                ExecutorService rootExecutor = Executors.newFixedThreadPool(Math.min(roots.size(), threads));
-
-                List<Future<?>> rootFutures = new ArrayList<>();
-
-                for (Integer root : roots) {
-                    rootFutures.add(rootExecutor.submit(() -> executeChain(root, map, childMap, shared, status,
-                            requiredKeys, cookie, headers, baseUrl, suiteResults)));
-                }
-                for (Future<?> rf : rootFutures) {
-                    rf.get();
-                }
-                rootExecutor.shutdown();
-                return suiteResults;
-            }));
-        }
         try {
-            for (Future<List<ApiResult>> f : suiteFutures) {
-                results.addAll(f.get());
-            }
+            DagScheduler.run(plan.getGraph(),
+                    index -> guarded(plan.node(index), cancel, suiteResults.get(plan.suiteOf(index)),
+                            () -> executeTest(plan.node(index), inheritedScope(plan, index, scopes), scopes, row,
+                                    cancel, path.remaining(index), suiteResults.get(plan.suiteOf(index)), run)),
+                    (index, reason) -> suiteResults.get(plan.suiteOf(index))
+                            .add(skippedResult(plan.node(index), reason)),
+                    cancel::skipReason,
+                    path.getRemaining())
+                    .join();
         } catch (Exception ignored) {
         }
-        suiteExecutor.shutdown();
+
+        List<ApiResult> results = new ArrayList<>();
+        suiteResults.forEach(results::addAll);
         return results;
     }
 
-    private void executeChain(Integer id,
-                              Map<Integer, JsonNode> all,
-                              Map<Integer, List<Integer>> child,
-                              Map<String, Object> shared,
-                              Map<Integer, TestStatus> status,
-                              Set<String> requiredKeys,
-                              String cookie,
-                              Map<String, String> headers,
-                              String baseUrl,
-                              List<ApiResult> out) {
-
-        JsonNode test = all.get(id);
-        if (test == null) return;
-        if (status.containsKey(id)) return;
-
-        if (test.has("parentId") && !test.get("parentId").isNull()) {
-
-            List<Integer> parents = new ArrayList<>();
-            JsonNode p = test.get("parentId");
-
-            if (p.isArray())
-                p.forEach(x -> parents.add(x.asInt()));
-            else
-                parents.add(p.asInt());
-
-            boolean anyParentFailed =
-                    parents.stream().anyMatch(pid -> status.get(pid) == TestStatus.FAILED);
-
-            boolean anyParentSkipped =
-                    parents.stream().anyMatch(pid -> status.get(pid) == TestStatus.SKIPPED);
-
-            boolean allParentsPassed =
-                    parents.stream().allMatch(pid -> status.get(pid) == TestStatus.PASSED);
-
-            if (anyParentFailed) {
-                addSkip(id, test, out, status,
-                        "Skipped because one of the parent testcase failed");
-                skipDescendants(id, all, child, out, status);
-                return;
-            }
-
-            if (anyParentSkipped && !allParentsPassed) {
-                addSkip(id, test, out, status,
-                        "Skipped because Parent testcase skipped");
-                skipDescendants(id, all, child, out, status);
-                return;
-            }
-
-            if (!allParentsPassed) return;
+    private VariableContext inheritedScope(TestPlan plan, int index, AtomicReferenceArray<VariableContext> scopes) {
+        int[] parents = plan.getGraph().parents(index);
+        VariableContext[] inherited = new VariableContext[parents.length];
+        for (int p = 0; p < parents.length; p++) {
+            VariableContext parent = scopes.get(parents[p]);
+            inherited[p] = parent != null ? parent : VariableContext.EMPTY;
         }
+        return VariableContext.merge(inherited);
+    }
 
-
-        Boolean pre = runPrecheck(test, cookie, headers, baseUrl);
-        if (Boolean.FALSE.equals(pre)) {
-            addSkip(id, test, out, status,
-                    "Skipped because Precheck Condition Failed");
-            skipDescendants(id, all, child, out, status);
-            return;
-        }
-        String method = test.path("method").asText("GET");
-
-        List<Map<String, Object>> expandedVars = expandVariables(shared);
-        boolean multipleExecutions = expandedVars.size() > 1;
-
-        List<ApiResult.CheckResult> combinedChecks = new ArrayList<>();
-        int totalPass = 0;
-        int totalFail = 0;
-
-        for (Map<String, Object> vars : expandedVars) {
-
-            String endpoint =
-                    injectDynamic(test.get("endpoint").asText(), vars);
-
-            String fullUrl = buildURL(baseUrl, endpoint);
-
-            if (multipleExecutions) {
-                combinedChecks.add(
-                        new ApiResult.CheckResult(
-                                "EXECUTION",
-                                "INFO",
-                                "Endpoint: " + fullUrl
-                        )
-                );
+    private CompletableFuture<TestStatus> executeTest(TestPlan.Node test,
+                                                      VariableContext scope,
+                                                      AtomicReferenceArray<VariableContext> scopes,
+                                                      RequestTemplate row,
+                                                      CancelScope cancel,
+                                                      long priority,
+                                                      List<ApiResult> out,
+                                                      RunContext run) {
+
+        long started = System.nanoTime();
+        if (cancel.isCancelled())
+            return skip(test, out, cancel.skipReason());
+
+        if (run.isPastDeadline())
+            return skip(test, out, run.deadlineReason());
+
+        String circuitOpen = apiCaller.circuitOpenReason(row.getBaseUrl());
+        if (circuitOpen != null)
+            return skip(test, out, "Skipped because " + circuitOpen);
+
+        return runPrecheck(test, row, cancel, priority, run).thenCompose(pre -> {
+            if (Boolean.FALSE.equals(pre)) {
+                String circuit = apiCaller.circuitOpenReason(row.getBaseUrl());
+                return skip(test, out, cancel.isCancelled() ? cancel.skipReason()
+                        : run.isPastDeadline() ? run.deadlineReason()
+                        : circuit != null ? "Skipped because " + circuit
+                        : "Skipped because Precheck Condition Failed");
             }
-
-
-            ApiCaller.ApiResponse resp =
-                    apiCaller.callApi(fullUrl, method, cookie, headers);
-
-            int passCount = 0;
-            int failCount = 0;
-
-            if (test.has("checks")) {
-                for (JsonNode c : test.get("checks")) {
-
-                    String type = c.get("type").asText();
-                    Validator v = ValidatorFactory.getValidator(type);
-                    boolean ok = v != null && v.validate(resp, c);
-
-                    String msg = switch (type) {
-                        case "fieldExistence" -> FieldExistenceValidator.getLastMessage();
-                        case "keyPresence" -> KeyPresenceValidator.getLastMessage();
-                        case "patternMatch" -> PatternMatchValidator.getLastMessage();
-                        case "valueMatch" -> ValueMatchValidator.getLastMessage();
-                        default -> ok ? "PASS" : "FAIL";
-                    };
-
-                    combinedChecks.add(
-                            new ApiResult.CheckResult(
-                                    type,
-                                    ok ? "PASS" : "FAIL",
-                                    msg
-                            )
-                    );
-
-                    if (ok) passCount++;
-                    else failCount++;
+            String method = test.getMethod();
+
+            VariableExpansion expansion = VariableExpansion.of(scope);
+            boolean multipleExecutions = expansion.isMultiple();
+            int fanOut = test.getFanOut() != null ? test.getFanOut() : run.getOptions().getFanOut();
+
+            CompletableFuture<List<ExecutionOutcome>> executions = FanOut.run(expansion, fanOut, (index, vars) -> {
+                String fullUrl = row.url(test.getEndpoint(), vars);
+
+                List<String> unresolved = test.getEndpoint().unresolved(vars);
+                if (!unresolved.isEmpty())
+                    return CompletableFuture.completedFuture(ExecutionOutcome.unresolved(test, fullUrl, unresolved));
+
+                ApiCaller.ApiRequest request = newRequest(run, test.getSpec(), fullUrl, method, row, cancel);
+                request.setPriority(priority);
+                request.setBody(requestBody(test, vars));
+                return call(run, row.getLane(), test.getRetry(), request)
+                        .thenApply(resp -> evaluate(test, fullUrl, resp));
+            });
+
+            return executions.thenCompose(outcomes -> {
+                List<ApiResult.CheckResult> combinedChecks = new ArrayList<>();
+                List<ApiResult.Execution> executionRecords = new ArrayList<>();
+                int[] totals = {0, 0, 0, 0};
+                String skipReason = null;
+                Map<String, Object> extracted = new HashMap<>();
+
+                for (ExecutionOutcome outcome : outcomes) {
+                    if (outcome.response != null)
+                        totals[2] += outcome.response.getAttempts();
+                    if (outcome.response != null && outcome.response.getSkipReason() != null) {
+                        skipReason = outcome.response.getSkipReason();
+                        continue;
+                    }
+                    if (multipleExecutions) {
+                        combinedChecks.add(
+                                new ApiResult.CheckResult(
+                                        "EXECUTION",
+                                        "INFO",
+                                        "Endpoint: " + outcome.fullUrl
+                                )
+                        );
+                    }
+                    if (outcome.response != null)
+                        executionRecords.add(toExecution(outcome.fullUrl, outcome.response));
+                    combinedChecks.addAll(outcome.checks);
+                    totals[0] += outcome.passCount;
+                    totals[1] += outcome.failCount;
+                    if (outcome.transportFailure)
+                        totals[3]++;
+                    extracted.putAll(outcome.extracted);
                 }
-            }
-            totalPass += passCount;
-            totalFail += failCount;
-
-            if (failCount == 0) {
-                extractRequired(test, resp, requiredKeys, shared);
-            }
-        }
-        String originalEndpoint = test.get("endpoint").asText();
-
-        String displayEndpoint;
-        String displayFullUrl;
-
-        if (multipleExecutions) {
-            displayEndpoint = originalEndpoint;
-            displayFullUrl = buildURL(baseUrl, originalEndpoint);
-        } else {
-            displayEndpoint = injectDynamic(originalEndpoint, expandedVars.get(0));
-            displayFullUrl = buildURL(baseUrl, displayEndpoint);
-        }
-
-        ApiResult finalResult = new ApiResult(
-                test.has("id") ? test.get("id").asInt() : -1,
-                test.path("name").asText(),
-                displayEndpoint,
-                displayFullUrl,
-                new ApiResult.Summary(totalPass + totalFail, totalPass, totalFail),
-                combinedChecks,
-                test.has("path") ? test.get("path").asText() : null,
-                null,
-                test.has("suite") ? test.get("suite").asText() : null
-        );
-
-        out.add(finalResult);
-
-        boolean overallPass = totalFail == 0;
-        status.put(id, overallPass ? TestStatus.PASSED : TestStatus.FAILED);
-
-        if (child.containsKey(id)) {
-            for (Integer c : child.get(id)) {
-                executeChain(c, all, child, shared,
-                        status, requiredKeys,
-                        cookie, headers, baseUrl, out);
-            }
-        }
-    }
-
-    private void addSkip(Integer id, JsonNode test, List<ApiResult> out, Map<Integer, TestStatus> status,
-                         String reason) {
-
-        if (status.containsKey(id))
-            return;
-
-        out.add(ApiResult.skipped(id, test.get("name").asText(), test.has("path") ? test.get("path").asText() : null,
-                null, test.has("suite") ? test.get("suite").asText() : null, reason));
 
-        status.put(id, TestStatus.SKIPPED);
-    }
+                if (skipReason != null)
+                    return skip(test, out, skipReason);
 
-    private void skipDescendants(Integer parent, Map<Integer, JsonNode> all, Map<Integer, List<Integer>> child,
-                                 List<ApiResult> out, Map<Integer, TestStatus> status) {
+                scopes.set(test.getIndex(), scope.with(extracted));
 
-        if (!child.containsKey(parent))
-            return;
+                int totalPass = totals[0];
+                int totalFail = totals[1];
+                String originalEndpoint = test.getEndpoint().getSource();
 
-        for (Integer c : child.get(parent)) {
-            JsonNode t = all.get(c);
-            addSkip(c, t, out, status, "Skipped because Parent testcase skipped");
-            skipDescendants(c, all, child, out, status);
-        }
-    }
+                String displayEndpoint;
+                String displayFullUrl;
 
-    private ApiResult runSingleTest(JsonNode test, String cookie, Map<String, String> headers, String baseUrl) {
+                if (multipleExecutions) {
+                    displayEndpoint = originalEndpoint;
+                    displayFullUrl = row.url(originalEndpoint);
+                } else {
+                    displayEndpoint = expansion.size() == 0 ? originalEndpoint
+                            : test.getEndpoint().render(expansion.iterator().next());
+                    displayFullUrl = row.url(displayEndpoint);
+                }
 
-        String endpoint = test.get("endpoint").asText();
-        endpoint = injectDynamic(endpoint, new HashMap<>());
+                ApiResult finalResult = new ApiResult(
+                        test.getId(),
+                        test.getName(),
+                        displayEndpoint,
+                        displayFullUrl,
+                        new ApiResult.Summary(totalPass + totalFail, totalPass, totalFail),
+                        combinedChecks,
+                        test.getPath(),
+                        null,
+                        test.getSuite()
+                );
 
-        String fullUrl = buildURL(baseUrl, endpoint);
+                finalResult.setAttempts(totals[2]);
+                finalResult.setExecutions(executionRecords);
+                finalResult.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                if (totalFail > 0) {
+                    finalResult.setFailureKind(totals[3] > 0 ? ApiResult.FailureKind.TRANSPORT
+                            : ApiResult.FailureKind.ASSERTION);
+                }
 
-        ApiCaller.ApiResponse resp = apiCaller.callApi(fullUrl, test.path("method").asText("GET"), cookie, headers);
+                out.add(finalResult);
 
-        return buildResult(test, endpoint, fullUrl, resp);
+                if (totalFail > 0)
+                    cancel.recordFailure();
+                return CompletableFuture.completedFuture(totalFail == 0 ? TestStatus.PASSED : TestStatus.FAILED);
+            });
+        });
     }
 
-    private ApiResult buildResult(JsonNode test, String resolvedEndpoint, String fullUrl, ApiCaller.ApiResponse resp) {
-
-        int testId = test.has("id") ? test.get("id").asInt() : -1;
-        String testPath = test.has("path") ? test.get("path").asText() : "UNKNOWN_PATH";
-
-        Integer parentId = null;
-        if (test.has("parentId") && !test.get("parentId").isNull()) {
-            JsonNode pid = test.get("parentId");
-
-            if (pid.isArray()) {
-                parentId = pid.get(0).asInt();
-            } else {
-                parentId = pid.asInt();
-            }
+    private static final class ExecutionOutcome {
+        private final String fullUrl;
+        private final ApiCaller.ApiResponse response;
+        private final List<ApiResult.CheckResult> checks = new ArrayList<>();
+        private final Map<String, Object> extracted = new HashMap<>();
+        private int passCount;
+        private int failCount;
+        private boolean transportFailure;
+
+        private ExecutionOutcome(String fullUrl, ApiCaller.ApiResponse response) {
+            this.fullUrl = fullUrl;
+            this.response = response;
         }
 
-        String rawSuite = test.has("suite") ? test.get("suite").asText() : "";
-        String suite = (rawSuite != null && rawSuite.contains("/"))
-                ? rawSuite.substring(0, rawSuite.indexOf("/")).trim()
-                : rawSuite;
-
-        List<ApiResult.CheckResult> checks = new ArrayList<>();
-        int pass = 0, fail = 0;
-
-        if (test.has("checks")) {
-            for (JsonNode c : test.get("checks")) {
-                Validator validator = ValidatorFactory.getValidator(c.get("type").asText());
-                boolean ok = validator != null && validator.validate(resp, c);
-                String msg = ok ? "PASS" : "FAIL";
-                checks.add(new ApiResult.CheckResult(c.get("type").asText(), msg, msg));
-                if (ok)
-                    pass++;
-                else
-                    fail++;
-            }
+        private static ExecutionOutcome unresolved(TestPlan.Node test, String fullUrl, List<String> variables) {
+            ExecutionOutcome outcome = new ExecutionOutcome(fullUrl, null);
+            outcome.checks.add(
+                    new ApiResult.CheckResult(
+                            "unresolvedPlaceholder",
+                            "FAIL",
+                            "Request not sent: no value for {" + String.join("}, {", variables) + "} in endpoint "
+                                    + test.getEndpoint().getSource()
+                    )
+            );
+            outcome.failCount++;
+            return outcome;
         }
-
-        return new ApiResult(testId, test.path("name").asText(), resolvedEndpoint, fullUrl,
-                new ApiResult.Summary(pass + fail, pass, fail), checks, testPath, parentId, suite);
     }
 
-    private ApiResult validateAndBuild(JsonNode test, ApiCaller.ApiResponse resp, String resolvedEndpoint,
-                                       String fullUrl) {
-
-        int testId = test.has("id") ? test.get("id").asInt() : -1;
-        String testPath = test.has("path") ? test.get("path").asText() : "UNKNOWN_PATH";
-
-        Integer parentId = null;
-        if (test.has("parentId") && !test.get("parentId").isNull()) {
-            JsonNode pid = test.get("parentId");
-
-            if (pid.isArray()) {
-                parentId = pid.get(0).asInt();
-            } else {
-                parentId = pid.asInt();
-            }
-        }
-
-        String rawSuite = test.has("suite") ? test.get("suite").asText() : "";
-        String suite = (rawSuite != null && rawSuite.contains("/"))
-                ? rawSuite.substring(0, rawSuite.indexOf("/")).trim()
-                : rawSuite;
-
-        List<ApiResult.CheckResult> list = new ArrayList<>();
-        int p = 0, f = 0;
+    private ExecutionOutcome evaluate(TestPlan.Node test, String fullUrl, ApiCaller.ApiResponse resp) {
+        ExecutionOutcome outcome = new ExecutionOutcome(fullUrl, resp);
+        if (resp.getSkipReason() != null)
+            return outcome;
+
+        if (resp.isTransportFailure()) {
+            outcome.checks.add(
+                    new ApiResult.CheckResult(
+                            "transport",
+                            "FAIL",
+                            "Request failed after " + resp.getAttempts() + " attempt(s): "
+                                    + resp.getResponseBody()
+                    )
+            );
+            outcome.failCount++;
+            outcome.transportFailure = true;
+        } else if (resp.isOversized()) {
+            outcome.checks.add(
+                    new ApiResult.CheckResult(
+                            "responseSize",
+                            "FAIL",
+                            "Response body exceeded the limit of " + resp.getBodyLimit()
+                                    + " bytes (received " + resp.getBodySize() + " bytes)"
+                    )
+            );
+            outcome.failCount++;
+        } else {
+            for (TestPlan.Check c : test.getChecks()) {
 
-        if (test.has("checks")) {
-            for (JsonNode c : test.get("checks")) {
-                String type = c.get("type").asText();
-                Validator v = ValidatorFactory.getValidator(type);
-                boolean ok = v != null && v.validate(resp, c);
+                String type = c.getType();
+                Validator v = c.getValidator();
+                boolean ok = v != null && v.validate(resp, c.getSpec());
 
                 String msg = switch (type) {
                     case "fieldExistence" -> FieldExistenceValidator.getLastMessage();
@@ -498,65 +354,94 @@ public class TestExecutor {
                     default -> ok ? "PASS" : "FAIL";
                 };
 
-                list.add(new ApiResult.CheckResult(type, ok ? "PASS" : "FAIL", msg));
-                if (ok)
-                    p++;
-                else
-                    f++;
+                outcome.checks.add(
+                        new ApiResult.CheckResult(
+                                type,
+                                ok ? "PASS" : "FAIL",
+                                msg
+                        )
+                );
+
+                if (ok) outcome.passCount++;
+                else outcome.failCount++;
             }
         }
-        return new ApiResult(testId, test.path("name").asText(), resolvedEndpoint, fullUrl,
-                new ApiResult.Summary(p + f, p, f), list, testPath, parentId, suite);
+
+        if (outcome.failCount == 0) {
+            extractRequired(test, resp, outcome.extracted);
+        }
+        return outcome;
     }
 
-    private String buildURL(String base, String endpoint) {
-        if (!base.endsWith("/"))
-            base += "/";
-        return endpoint.startsWith("http") ? endpoint
-                : base + (endpoint.startsWith("/") ? endpoint.substring(1) : endpoint);
+    private ApiResult.Execution toExecution(String fullUrl, ApiCaller.ApiResponse resp) {
+        TransportTiming timing = resp.getTiming();
+        return new ApiResult.Execution(
+                fullUrl,
+                resp.getStatusCode(),
+                resp.getAttempts(),
+                timing != null ? TransportTiming.toMillis(timing.getFirstByteNanos()) : null,
+                timing != null ? TransportTiming.toMillis(timing.getTotalNanos()) : null,
+                resp.getBodySize(),
+                resp.getWireBytes(),
+                resp.getContentEncoding(),
+                resp.getHeaders()
+        );
     }
 
-    private String injectDynamic(String endpoint, Map<String, Object> var) {
-        for (var entry : var.entrySet()) {
-            endpoint = endpoint.replace("{" + entry.getKey() + "}", entry.getValue().toString());
+    private CompletableFuture<TestStatus> guarded(TestPlan.Node test, CancelScope cancel, List<ApiResult> out,
+                                                  Supplier<CompletableFuture<TestStatus>> execution) {
+        CompletableFuture<TestStatus> result;
+        try {
+            result = execution.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
         }
-        return endpoint;
+        return result.exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            StackTraceElement[] trace = cause.getStackTrace();
+            String msg = "Error: " + cause.getClass().getSimpleName() + ": " + cause.getMessage()
+                    + (trace.length > 0 ? " (at " + trace[0] + ")" : "");
+            ApiResult failed = new ApiResult(test.getId(), test.getName(), test.getEndpoint().getSource(), null,
+                    new ApiResult.Summary(1, 0, 1), List.of(new ApiResult.CheckResult("EXECUTION", "FAIL", msg)),
+                    test.getPath(), null, test.getSuite());
+            failed.setFailureKind(ApiResult.FailureKind.ASSERTION);
+            out.add(failed);
+            cancel.recordFailure();
+            return TestStatus.FAILED;
+        });
     }
 
-    private void extractRequired(JsonNode test, ApiCaller.ApiResponse resp, Set<String> keys,
-                                 Map<String, Object> store) {
-        if (!test.has("requires"))
+    private CompletableFuture<TestStatus> skip(TestPlan.Node test, List<ApiResult> out, String reason) {
+        out.add(skippedResult(test, reason));
+        return CompletableFuture.completedFuture(TestStatus.SKIPPED);
+    }
+
+    private ApiResult skippedResult(TestPlan.Node test, String reason) {
+        return ApiResult.skipped(test.getId(), test.getName(), test.getPath(), null, test.getSuite(), reason);
+    }
+
+    private void extractRequired(TestPlan.Node test, ApiCaller.ApiResponse resp, Map<String, Object> store) {
+        if (test.getRequires().isEmpty())
             return;
 
         try {
-            JsonNode body = objectMapper.readTree(resp.getResponseBody());
+            JsonNode body = resp.getJson();
             if (body == null)
                 return;
 
-            for (JsonNode req : test.get("requires")) {
-                String key, path;
-                if (req.isTextual()) {
-                    key = req.asText();
-                    List<JsonNode> list = resolvePath(body, key);
-                    if (!list.isEmpty())
-                        store.put(key, list.get(0).asText());
+            for (TestPlan.Requirement req : test.getRequires()) {
+                List<JsonNode> values = resolvePath(body, req.getPath());
+                if (values.isEmpty())
                     continue;
-                }
-
-                key = req.get("name").asText();
-                path = req.get("path").asText();
-                List<JsonNode> values = resolvePath(body, path);
 
-                if (!values.isEmpty()) {
-                    if (values.size() == 1 && values.get(0).isValueNode()) {
-                        store.put(key, values.get(0).asText());
-                    } else {
-                        List<String> arr = new ArrayList<>();
-                        for (JsonNode v : values)
-                            if (v.isValueNode())
-                                arr.add(v.asText());
-                        store.put(key, arr);
-                    }
+                if (req.isScalar() || (values.size() == 1 && values.get(0).isValueNode())) {
+                    store.put(req.getName(), values.get(0).asText());
+                } else {
+                    List<String> arr = new ArrayList<>();
+                    for (JsonNode v : values)
+                        if (v.isValueNode())
+                            arr.add(v.asText());
+                    store.put(req.getName(), arr);
                 }
             }
         } catch (Exception ignored) {
@@ -612,89 +497,114 @@ public class TestExecutor {
         return results;
     }
 
-    private JsonNode findField(JsonNode node, String key) {
-        if (node.isObject()) {
-            if (node.has(key))
-                return node.get(key);
-            for (JsonNode c : node) {
-                JsonNode x = findField(c, key);
-                if (x != null)
-                    return x;
-            }
-        }
-        if (node.isArray())
-            for (JsonNode c : node) {
-                JsonNode x = findField(c, key);
-                if (x != null)
-                    return x;
-            }
-        return null;
-    }
+    private CompletableFuture<Boolean> runPrecheck(TestPlan.Node test, RequestTemplate row, CancelScope cancel,
+                                                   long priority, RunContext run) {
+        JsonNode rule = test.getPrecheckRule();
+        if (rule == null)
+            return CompletableFuture.completedFuture(true);
 
-    private void debugPrintHierarchy(Map<Integer, List<Integer>> childMap, Map<Integer, JsonNode> map) {
-        System.out.println("\n================= TESTCASE HIERARCHY (DEBUG) =================");
-        Set<Integer> roots = new LinkedHashSet<>();
-        for (Integer id : map.keySet()) {
-            JsonNode t = map.get(id);
-            if (!t.has("parentId") || t.get("parentId").isNull()) {
-                roots.add(id);
-            }
-        }
-        for (Integer root : roots) {
-            System.out.println("ROOT → " + root + " (" + map.get(root).get("name").asText() + ")");
-            printChildrenRecursive(root, childMap, map, 1);
-        }
+        PrecheckCache cache = run.getPrecheckCache();
+        if (cache == null)
+            return executePrecheckRule(test, null, row, cancel, priority, run);
+
+        String cacheKey = PrecheckCache.key(test.getPrecheckKey(), row.getCookie(), row.getBaseUrl());
+        return cache.get(cacheKey, invalidate -> executePrecheckRule(test, invalidate, row, run.getCancelScope(),
+                priority, run));
     }
 
-    private void printChildrenRecursive(Integer parent, Map<Integer, List<Integer>> childMap,
-                                        Map<Integer, JsonNode> map, int level) {
+    private CompletableFuture<Boolean> executePrecheckRule(TestPlan.Node test, Runnable invalidate,
+                                                           RequestTemplate row, CancelScope cancel, long priority,
+                                                           RunContext run) {
+        JsonNode rule = test.getPrecheckRule();
+        String endpoint;
+        String method;
+        try {
+            endpoint = rule.get("endpoint").asText();
+            method = rule.path("method").asText("GET");
+        } catch (Exception e) {
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(false);
+        }
 
-        if (!childMap.containsKey(parent))
-            return;
-        for (Integer child : childMap.get(parent)) {
-            String indent = "   ".repeat(level);
-            System.out.println(
-                    indent + "└── Level " + level + ": " + child + " (" + map.get(child).get("name").asText() + ")");
+        ApiCaller.ApiRequest request = newRequest(run, rule, row.url(endpoint), method, row, cancel);
+        request.setPriority(priority);
+        return call(run, row.getLane(), test.getPrecheckRetry(), request)
+                .thenApply(resp -> {
+                    if (invalidate != null && (resp.isTransportFailure() || resp.getSkipReason() != null))
+                        invalidate.run();
+                    return evaluatePrecheckRule(rule, resp);
+                });
+    }
 
-            printChildrenRecursive(child, childMap, map, level + 1);
+    private ApiCaller.ApiRequest newRequest(RunContext run, JsonNode spec, String url, String method,
+                                            RequestTemplate row, CancelScope cancel) {
+        ApiCaller.ApiRequest request = new ApiCaller.ApiRequest(url, method, row.getCookie(), row.getHeaders());
+        request.setMaxResponseBytes(spec.path("maxResponseBytes").asLong(run.getOptions().getMaxResponseBytes()));
+        request.setTransport(run.getOptions().getTransport());
+        request.setTimeoutMs(spec.path("timeoutMs").asLong(run.getOptions().getRequestTimeoutMs()));
+        request.setDeadlineNanos(run.getDeadlineNanos());
+        request.setCompression(spec.path("compression").asBoolean(run.getOptions().isCompression()));
+        request.setRecorder(run.getRecorder());
+        request.setReplay(run.getReplay());
+        request.setPreparedHeaders(row.preparedHeaders(request.isCompression()));
+        request.setCancelScope(cancel);
+        try {
+            request.setUri(URI.create(url));
+        } catch (IllegalArgumentException ignored) {
+            // left unset so ApiCaller reports the malformed URL as a transport error
         }
+        return request;
     }
 
-    private JsonNode resolvePrecheckConfig(JsonNode precheckNode) {
-        if (precheckNode == null)
-            return null;
-        if (precheckNode.isObject())
-            return precheckNode;
-        if (precheckNode.isTextual())
-            return precheckRules.get(precheckNode.asText());
+    private RequestBody requestBody(TestPlan.Node test, Map<String, Object> vars) {
+        if (test.getBodyFile() != null) {
+            return test.isSubstituteBody()
+                    ? RequestBody.ofTemplateFile(test.getBodyFile(), vars)
+                    : RequestBody.ofFile(test.getBodyFile());
+        }
+        if (test.getBodyTemplate() != null) {
+            return RequestBody.ofString(test.isSubstituteBody()
+                    ? test.getBodyTemplate().render(vars) : test.getBodyTemplate().getSource());
+        }
         return null;
     }
 
-    private Boolean runPrecheck(JsonNode test, String cookie, Map<String, String> headers, String baseUrl) {
-        if (!test.has("precheck"))
-            return true;
-
-        JsonNode pc = resolvePrecheckConfig(test.get("precheck"));
-        if (pc == null)
-            return true;
-
-        if (pc.isTextual()) {
-            JsonNode rule = precheckRules.get(pc.asText());
-            if (rule == null)
-                return true;
-            return executePrecheckRule(rule, cookie, headers, baseUrl);
+    private CompletableFuture<ApiCaller.ApiResponse> call(RunContext run, String lane, RetryPolicy policy,
+                                                          ApiCaller.ApiRequest request) {
+        RequestCoalescer coalescer = run.getCoalescer();
+        if (coalescer != null && RequestCoalescer.isCoalescable(request)) {
+            return coalescer.execute(RequestCoalescer.key(request), () -> attempt(run, lane, request, policy, 1));
         }
-        return executePrecheckRule(pc, cookie, headers, baseUrl);
+        return attempt(run, lane, request, policy, 1);
     }
 
-    private Boolean executePrecheckRule(JsonNode rule, String cookie, Map<String, String> headers, String baseUrl) {
-        try {
-            String endpoint = rule.get("endpoint").asText();
-            String method = rule.path("method").asText("GET");
+    private CompletableFuture<ApiCaller.ApiResponse> attempt(RunContext run, String lane,
+                                                             ApiCaller.ApiRequest request, RetryPolicy policy,
+                                                             int attempt) {
+        return apiCaller.callApiAsync(request,
+                        send -> scheduler.submit(run, lane, request.getCancelScope(), request.getPriority(), send),
+                        run.isVirtual())
+                .thenCompose(resp -> {
+                    resp.setAttempts(attempt);
+                    run.recordResponseBytes(resp.getWireBytes(), resp.getBodySize());
+                    if (!policy.shouldRetry(request.getMethod(), resp.isTransportFailure(), resp.getStatusCode(),
+                            attempt) || run.isPastDeadline() || isCancelled(request) || !run.tryConsumeRetry())
+                        return CompletableFuture.completedFuture(resp);
+
+                    Executor backoff = CompletableFuture.delayedExecutor(policy.backoffMillis(attempt),
+                            TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> {
+                    }, backoff).thenCompose(v -> attempt(run, lane, request, policy, attempt + 1));
+                });
+    }
 
-            ApiCaller.ApiResponse resp = apiCaller.callApi(buildURL(baseUrl, endpoint), method, cookie, headers);
+    private static boolean isCancelled(ApiCaller.ApiRequest request) {
+        return request.getCancelScope() != null && request.getCancelScope().isCancelled();
+    }
 
-            JsonNode body = objectMapper.readTree(resp.getResponseBody());
+    private Boolean evaluatePrecheckRule(JsonNode rule, ApiCaller.ApiResponse resp) {
+        try {
+            JsonNode body = resp.getJson();
             if (body == null)
                 return false;
 
@@ -733,31 +643,6 @@ public class TestExecutor {
         }
     }
 
-    private List<Map<String, Object>> expandVariables(Map<String, Object> shared) {
-        List<Map<String, Object>> expanded = new ArrayList<>();
-
-        boolean hasList = shared.values().stream().anyMatch(v -> v instanceof List);
-
-        if (!hasList) {
-            expanded.add(shared);
-            return expanded;
-        }
-
-        for (Map.Entry<String, Object> entry : shared.entrySet()) {
-            if (entry.getValue() instanceof List<?> list) {
-                for (Object val : list) {
-                    Map<String, Object> copy = new HashMap<>(shared);
-                    copy.put(entry.getKey(), val);
-                    expanded.add(copy);
-                }
-                return expanded;
-            }
-        }
-
-        expanded.add(shared);
-        return expanded;
-    }
-
     private boolean evaluatePrecheckCondition(String actual, String operator, String expected) {
         switch (operator) {
 
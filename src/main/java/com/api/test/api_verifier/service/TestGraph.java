@@ -0,0 +1,191 @@
+package com.api.test.api_verifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class TestGraph {
+
+    private final JsonNode[] tests;
+    private final int[] ids;
+    private final int[][] parents;
+    private final int[] childOffsets;
+    private final int[] childTargets;
+    private final int[] roots;
+    private final int[] order;
+    private final String[] invalid;
+
+    private TestGraph(JsonNode[] tests, int[] ids, int[][] parents, int[] childOffsets, int[] childTargets,
+                      int[] roots, int[] order, String[] invalid) {
+        this.tests = tests;
+        this.ids = ids;
+        this.parents = parents;
+        this.childOffsets = childOffsets;
+        this.childTargets = childTargets;
+        this.roots = roots;
+        this.order = order;
+        this.invalid = invalid;
+    }
+
+    public static TestGraph compile(List<JsonNode> input) {
+        return compile(input, test -> null);
+    }
+
+    public static TestGraph compile(List<JsonNode> input, Function<JsonNode, String> validator) {
+        int n = input.size();
+        JsonNode[] tests = input.toArray(new JsonNode[0]);
+        int[] ids = new int[n];
+        String[] invalid = new String[n];
+        Map<Integer, Integer> indexOf = new HashMap<>(n * 2);
+
+        for (int i = 0; i < n; i++) {
+            ids[i] = tests[i].get("id").asInt();
+            Integer previous = indexOf.putIfAbsent(ids[i], i);
+            if (previous != null)
+                invalid[i] = "Skipped because testcase id " + ids[i] + " is declared more than once";
+            else
+                invalid[i] = validator.apply(tests[i]);
+        }
+
+        int[][] parents = new int[n][];
+        int[] childCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            List<Integer> declared = parentIds(tests[i]);
+            int[] resolved = new int[declared.size()];
+            int count = 0;
+            for (Integer pid : declared) {
+                Integer p = indexOf.get(pid);
+                if (p == null) {
+                    if (invalid[i] == null)
+                        invalid[i] = "Skipped because parent testcase " + pid + " does not exist";
+                    continue;
+                }
+                resolved[count++] = p;
+                childCounts[p]++;
+            }
+            parents[i] = count == resolved.length ? resolved : Arrays.copyOf(resolved, count);
+        }
+
+        int[] childOffsets = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            childOffsets[i + 1] = childOffsets[i] + childCounts[i];
+        int[] childTargets = new int[childOffsets[n]];
+        int[] fill = Arrays.copyOf(childOffsets, n);
+        for (int i = 0; i < n; i++) {
+            for (int p : parents[i])
+                childTargets[fill[p]++] = i;
+        }
+
+        int[] order = markCycles(parents, childOffsets, childTargets, invalid);
+
+        int rootCount = 0;
+        int[] roots = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (parents[i].length == 0)
+                roots[rootCount++] = i;
+        }
+
+        return new TestGraph(tests, ids, parents, childOffsets, childTargets, Arrays.copyOf(roots, rootCount),
+                order, invalid);
+    }
+
+    private static int[] markCycles(int[][] parents, int[] childOffsets, int[] childTargets, String[] invalid) {
+        int n = parents.length;
+        int[] order = new int[n];
+        int[] inDegree = new int[n];
+        ArrayDeque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            inDegree[i] = parents[i].length;
+            if (inDegree[i] == 0)
+                ready.add(i);
+        }
+
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            order[visited++] = i;
+            for (int c = childOffsets[i]; c < childOffsets[i + 1]; c++) {
+                if (--inDegree[childTargets[c]] == 0)
+                    ready.add(childTargets[c]);
+            }
+        }
+        if (visited == n)
+            return order;
+
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] > 0 && invalid[i] == null)
+                invalid[i] = "Skipped because testcase is part of or depends on a dependency cycle";
+        }
+        return Arrays.copyOf(order, visited);
+    }
+
+    private static List<Integer> parentIds(JsonNode test) {
+        List<Integer> ids = new ArrayList<>();
+        JsonNode p = test.get("parentId");
+        if (p == null || p.isNull())
+            return ids;
+        if (p.isArray())
+            p.forEach(x -> ids.add(x.asInt()));
+        else
+            ids.add(p.asInt());
+        return ids;
+    }
+
+    public int size() {
+        return tests.length;
+    }
+
+    public JsonNode test(int index) {
+        return tests[index];
+    }
+
+    public int id(int index) {
+        return ids[index];
+    }
+
+    public int inDegree(int index) {
+        return parents[index].length;
+    }
+
+    public int[] parents(int index) {
+        return parents[index];
+    }
+
+    public int childStart(int index) {
+        return childOffsets[index];
+    }
+
+    public int childEnd(int index) {
+        return childOffsets[index + 1];
+    }
+
+    public int child(int edge) {
+        return childTargets[edge];
+    }
+
+    public int[] roots() {
+        return roots;
+    }
+
+    public String invalidReason(int index) {
+        return invalid[index];
+    }
+
+    public long[] longestPaths(long[] cost) {
+        long[] remaining = new long[tests.length];
+        for (int k = order.length - 1; k >= 0; k--) {
+            int i = order[k];
+            long longest = 0;
+            for (int e = childOffsets[i]; e < childOffsets[i + 1]; e++)
+                longest = Math.max(longest, remaining[childTargets[e]]);
+            remaining[i] = cost[i] + longest;
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,290 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.model.RetryPolicy;
+import com.api.test.api_verifier.validator.Validator;
+import com.api.test.api_verifier.validator.ValidatorFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+public final class TestPlan {
+
+    public static final class Check {
+        private final String type;
+        private final Validator validator;
+        private final JsonNode spec;
+
+        private Check(String type, Validator validator, JsonNode spec) {
+            this.type = type;
+            this.validator = validator;
+            this.spec = spec;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Validator getValidator() {
+            return validator;
+        }
+
+        public JsonNode getSpec() {
+            return spec;
+        }
+    }
+
+    public static final class Requirement {
+        private final String name;
+        private final String path;
+        private final boolean scalar;
+
+        private Requirement(String name, String path, boolean scalar) {
+            this.name = name;
+            this.path = path;
+            this.scalar = scalar;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public boolean isScalar() {
+            return scalar;
+        }
+    }
+
+    public static final class Node {
+        private final int index;
+        private final int id;
+        private final String name;
+        private final String method;
+        private final EndpointTemplate endpoint;
+        private final String path;
+        private final String suite;
+        private final String topSuite;
+        private final JsonNode precheckRule;
+        private final String precheckKey;
+        private final RetryPolicy retry;
+        private final RetryPolicy precheckRetry;
+        private final List<Check> checks;
+        private final List<Requirement> requires;
+        private final Integer fanOut;
+        private final EndpointTemplate bodyTemplate;
+        private final Path bodyFile;
+        private final boolean substituteBody;
+        private final JsonNode spec;
+
+        private Node(int index, JsonNode test, Function<String, JsonNode> precheckRules, RetryPolicy baseRetry) {
+            this.index = index;
+            this.id = test.get("id").asInt();
+            this.name = test.path("name").asText();
+            this.method = test.path("method").asText("GET");
+            this.endpoint = test.hasNonNull("endpoint") ? EndpointTemplate.compile(test.get("endpoint").asText()) : null;
+            this.path = test.has("path") ? test.get("path").asText() : null;
+            this.suite = test.has("suite") ? test.get("suite").asText() : null;
+            String rawSuite = suite != null ? suite : "DEFAULT";
+            this.topSuite = rawSuite.contains("/") ? rawSuite.substring(0, rawSuite.indexOf("/")).trim() : rawSuite;
+
+            JsonNode precheck = test.get("precheck");
+            JsonNode rule = null;
+            if (precheck != null && precheck.isObject())
+                rule = precheck;
+            else if (precheck != null && precheck.isTextual())
+                rule = precheckRules.apply(precheck.asText());
+            this.precheckRule = rule;
+            this.precheckKey = rule == null ? null
+                    : precheck.isTextual() ? "named:" + precheck.asText() : "inline:" + rule;
+            this.retry = baseRetry.overriddenBy(test.get("retry"));
+            this.precheckRetry = rule != null ? baseRetry.overriddenBy(rule.get("retry")) : baseRetry;
+
+            List<Check> checks = new ArrayList<>();
+            if (test.has("checks")) {
+                for (JsonNode c : test.get("checks")) {
+                    String type = c.get("type").asText();
+                    checks.add(new Check(type, ValidatorFactory.getValidator(type), c));
+                }
+            }
+            this.checks = Collections.unmodifiableList(checks);
+
+            List<Requirement> requires = new ArrayList<>();
+            if (test.has("requires")) {
+                for (JsonNode r : test.get("requires")) {
+                    if (r.isTextual())
+                        requires.add(new Requirement(r.asText(), r.asText(), true));
+                    else
+                        requires.add(new Requirement(r.get("name").asText(), r.get("path").asText(), false));
+                }
+            }
+            this.requires = Collections.unmodifiableList(requires);
+
+            this.fanOut = test.has("fanOut") ? test.get("fanOut").asInt() : null;
+
+            if (test.hasNonNull("bodyFile")) {
+                Path file = Paths.get(test.get("bodyFile").asText());
+                this.bodyFile = file.isAbsolute() ? file
+                        : Paths.get(System.getProperty("user.home"), "testiq", "payloads").resolve(file);
+                this.bodyTemplate = null;
+            } else if (test.hasNonNull("body")) {
+                JsonNode body = test.get("body");
+                this.bodyFile = null;
+                this.bodyTemplate = EndpointTemplate.compile(body.isTextual() ? body.asText() : body.toString());
+            } else {
+                this.bodyFile = null;
+                this.bodyTemplate = null;
+            }
+            this.substituteBody = test.path("substituteBody").asBoolean(true);
+            this.spec = test;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public EndpointTemplate getEndpoint() {
+            return endpoint;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getSuite() {
+            return suite;
+        }
+
+        public String getTopSuite() {
+            return topSuite;
+        }
+
+        public JsonNode getPrecheckRule() {
+            return precheckRule;
+        }
+
+        public String getPrecheckKey() {
+            return precheckKey;
+        }
+
+        public RetryPolicy getRetry() {
+            return retry;
+        }
+
+        public RetryPolicy getPrecheckRetry() {
+            return precheckRetry;
+        }
+
+        public List<Check> getChecks() {
+            return checks;
+        }
+
+        public List<Requirement> getRequires() {
+            return requires;
+        }
+
+        public Integer getFanOut() {
+            return fanOut;
+        }
+
+        public EndpointTemplate getBodyTemplate() {
+            return bodyTemplate;
+        }
+
+        public Path getBodyFile() {
+            return bodyFile;
+        }
+
+        public boolean isSubstituteBody() {
+            return substituteBody;
+        }
+
+        public JsonNode getSpec() {
+            return spec;
+        }
+    }
+
+    private final TestGraph graph;
+    private final Node[] nodes;
+    private final List<String> suites;
+    private final int[] suiteOf;
+    private final Set<String> requiredKeys;
+
+    private TestPlan(TestGraph graph, Node[] nodes, List<String> suites, int[] suiteOf, Set<String> requiredKeys) {
+        this.graph = graph;
+        this.nodes = nodes;
+        this.suites = suites;
+        this.suiteOf = suiteOf;
+        this.requiredKeys = requiredKeys;
+    }
+
+    public static TestPlan compile(List<JsonNode> tests, Function<String, JsonNode> precheckRules,
+                                   RetryPolicy baseRetry) {
+        TestGraph graph = TestGraph.compile(tests,
+                test -> test.hasNonNull("endpoint") ? null : "Skipped because testcase has no endpoint");
+        Node[] nodes = new Node[graph.size()];
+        Set<String> requiredKeys = new LinkedHashSet<>();
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new Node(i, graph.test(i), precheckRules, baseRetry);
+            nodes[i].requires.forEach(r -> requiredKeys.add(r.name));
+        }
+
+        Map<String, Integer> suiteIndex = new LinkedHashMap<>();
+        for (int root : graph.roots())
+            suiteIndex.putIfAbsent(nodes[root].topSuite, suiteIndex.size());
+        int[] suiteOf = new int[nodes.length];
+        for (Node node : nodes) {
+            suiteIndex.putIfAbsent(node.topSuite, suiteIndex.size());
+            suiteOf[node.index] = suiteIndex.get(node.topSuite);
+        }
+
+        return new TestPlan(graph, nodes, List.copyOf(suiteIndex.keySet()), suiteOf,
+                Collections.unmodifiableSet(requiredKeys));
+    }
+
+    public TestGraph getGraph() {
+        return graph;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public Node node(int index) {
+        return nodes[index];
+    }
+
+    public List<String> getSuites() {
+        return suites;
+    }
+
+    public int suiteOf(int index) {
+        return suiteOf[index];
+    }
+
+    public Set<String> getRequiredKeys() {
+        return requiredKeys;
+    }
+}
@@ -0,0 +1,5 @@
+package com.api.test.api_verifier.service;
+
+public enum TestStatus {
+    PASSED, FAILED, SKIPPED
+}
@@ -0,0 +1,103 @@
+package com.api.test.api_verifier.service;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class VariableContext extends AbstractMap<String, Object> {
+
+    public static final VariableContext EMPTY = new VariableContext(Map.of(), new VariableContext[0]);
+
+    private final Map<String, Object> bindings;
+    private final VariableContext[] parents;
+    private final boolean linear;
+    private final boolean hasLists;
+    private volatile Map<String, Object> flattened;
+
+    private VariableContext(Map<String, Object> bindings, VariableContext[] parents) {
+        this.bindings = bindings;
+        this.parents = parents;
+        this.linear = parents.length == 0 || (parents.length == 1 && parents[0].linear);
+        boolean lists = bindings.values().stream().anyMatch(v -> v instanceof List);
+        for (VariableContext parent : parents)
+            lists |= parent.hasLists;
+        this.hasLists = lists;
+    }
+
+    public static VariableContext merge(VariableContext... parents) {
+        if (parents.length == 0)
+            return EMPTY;
+        if (parents.length == 1)
+            return parents[0];
+        return new VariableContext(Map.of(), parents.clone());
+    }
+
+    public VariableContext with(Map<String, Object> bindings) {
+        if (bindings.isEmpty())
+            return this;
+        return new VariableContext(Collections.unmodifiableMap(new HashMap<>(bindings)),
+                new VariableContext[]{this});
+    }
+
+    public boolean hasLists() {
+        return hasLists;
+    }
+
+    public Map<String, Object> getBindings() {
+        return bindings;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Map<String, Object> flat = flattened;
+        if (flat != null)
+            return flat.get(key);
+
+        if (linear) {
+            for (VariableContext scope = this; ; scope = scope.parents[0]) {
+                Object value = scope.bindings.get(key);
+                if (value != null || scope.parents.length == 0)
+                    return value;
+            }
+        }
+        return flatten().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return flatten().entrySet();
+    }
+
+    private Map<String, Object> flatten() {
+        Map<String, Object> flat = flattened;
+        if (flat != null)
+            return flat;
+
+        Map<String, Object> merged = new LinkedHashMap<>();
+        Set<VariableContext> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<VariableContext> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            VariableContext scope = pending.pop();
+            if (!seen.add(scope))
+                continue;
+            scope.bindings.forEach(merged::putIfAbsent);
+            for (int p = scope.parents.length - 1; p >= 0; p--)
+                pending.push(scope.parents[p]);
+        }
+        flat = Collections.unmodifiableMap(merged);
+        flattened = flat;
+        return flat;
+    }
+}
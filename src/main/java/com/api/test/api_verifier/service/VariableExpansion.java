@@ -0,0 +1,148 @@
+package com.api.test.api_verifier.service;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public final class VariableExpansion implements Iterable<Map<String, Object>> {
+
+    private final Map<String, Object> base;
+    private final String[] keys;
+    private final List<?>[] values;
+    private final long size;
+
+    private VariableExpansion(Map<String, Object> base, String[] keys, List<?>[] values, long size) {
+        this.base = base;
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    public static VariableExpansion of(VariableContext scope) {
+        if (!scope.hasLists())
+            return new VariableExpansion(scope, new String[0], new List<?>[0], 1);
+        return of((Map<String, Object>) scope);
+    }
+
+    public static VariableExpansion of(Map<String, Object> vars) {
+        Map<String, Object> base = vars instanceof VariableContext ? vars : new HashMap<>(vars);
+        List<String> keys = new ArrayList<>();
+        List<List<?>> values = new ArrayList<>();
+        long size = 1;
+
+        for (Map.Entry<String, Object> entry : base.entrySet()) {
+            if (entry.getValue() instanceof List<?> list) {
+                keys.add(entry.getKey());
+                values.add(List.copyOf(list));
+                size = list.isEmpty() ? 0 : multiply(size, list.size());
+            }
+        }
+        return new VariableExpansion(base, keys.toArray(new String[0]), values.toArray(new List<?>[0]), size);
+    }
+
+    private static long multiply(long size, int factor) {
+        return size == 0 ? 0 : size > Long.MAX_VALUE / factor ? Long.MAX_VALUE : size * factor;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isMultiple() {
+        return size > 1;
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> iterator() {
+        return new Iterator<>() {
+            private final int[] position = new int[keys.length];
+            private long remaining = size;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (remaining <= 0)
+                    throw new NoSuchElementException();
+                remaining--;
+                if (keys.length == 0)
+                    return base;
+                Binding binding = new Binding(position.clone());
+                for (int k = position.length - 1; k >= 0; k--) {
+                    if (++position[k] < values[k].size())
+                        break;
+                    position[k] = 0;
+                }
+                return binding;
+            }
+        };
+    }
+
+    private final class Binding extends AbstractMap<String, Object> {
+        private final int[] position;
+
+        private Binding(int[] position) {
+            this.position = position;
+        }
+
+        private int slot(Object key) {
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k].equals(key))
+                    return k;
+            }
+            return -1;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int k = slot(key);
+            return k >= 0 ? values[k].get(position[k]) : base.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return base.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return base.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<String> names = base.keySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            String name = names.next();
+                            return new SimpleImmutableEntry<>(name, get(name));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return base.size();
+                }
+            };
+        }
+    }
+}
@@ -3,14 +3,12 @@ package com.api.test.api_verifier.validator;
 import com.api.test.api_verifier.util.JsonPathResolver;
 import com.api.test.api_verifier.service.ApiCaller;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class FieldExistenceValidator implements Validator {
 
-    private final ObjectMapper mapper = new ObjectMapper();
     private static final ThreadLocal<String> lastMessage = new ThreadLocal<>();
 
     public static String getLastMessage() {
@@ -25,7 +23,7 @@ public class FieldExistenceValidator implements Validator {
                 return false;
             }
 
-            JsonNode root = mapper.readTree(response.getResponseBody());
+            JsonNode root = response.getJson();
 
             String path = checkNode.path("path").asText("$");
 
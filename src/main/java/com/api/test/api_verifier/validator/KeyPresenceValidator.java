@@ -3,11 +3,9 @@ package com.api.test.api_verifier.validator;
 import com.api.test.api_verifier.util.JsonPathResolver;
 import com.api.test.api_verifier.service.ApiCaller;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class KeyPresenceValidator implements Validator {
 
-    private final ObjectMapper mapper = new ObjectMapper();
     private static final ThreadLocal<String> lastMessage = new ThreadLocal<>();
 
     public static String getLastMessage() {
@@ -29,7 +27,7 @@ public class KeyPresenceValidator implements Validator {
                 lastMessage.set("Empty API response");
                 return false;
             }
-            JsonNode root = mapper.readTree(response.getResponseBody());
+            JsonNode root = response.getJson();
             boolean exists = !JsonPathResolver.resolve(root, path.trim()).isEmpty();
 
             if (exists) {
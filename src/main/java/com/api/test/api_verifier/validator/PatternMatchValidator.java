@@ -3,7 +3,6 @@ package com.api.test.api_verifier.validator;
 import com.api.test.api_verifier.util.JsonPathResolver;
 import com.api.test.api_verifier.service.ApiCaller;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.*;
 import java.util.regex.Pattern;
@@ -11,7 +10,6 @@ import java.util.regex.Pattern;
 public class PatternMatchValidator implements Validator {
 
     private static final ThreadLocal<String> lastMessage = new ThreadLocal<>();
-    private final ObjectMapper mapper = new ObjectMapper();
 
     public static String getLastMessage() {
         return lastMessage.get();
@@ -37,7 +35,7 @@ public class PatternMatchValidator implements Validator {
                 return false;
             }
 
-            JsonNode root = mapper.readTree(response.getResponseBody());
+            JsonNode root = response.getJson();
             List<JsonNode> targetNodes = JsonPathResolver.resolve(root, path);
 
             if (targetNodes.isEmpty()) {
@@ -3,7 +3,6 @@ package com.api.test.api_verifier.validator;
 import com.api.test.api_verifier.util.JsonPathResolver;
 import com.api.test.api_verifier.service.ApiCaller;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,7 +10,6 @@ import java.util.List;
 public class ValueMatchValidator implements Validator {
 
     private static final ThreadLocal<String> lastMessage = new ThreadLocal<>();
-    private final ObjectMapper mapper = new ObjectMapper();
 
     public static String getLastMessage() {
         return lastMessage.get();
@@ -36,7 +34,7 @@ public class ValueMatchValidator implements Validator {
                 return false;
             }
 
-            JsonNode body = mapper.readTree(response.getResponseBody());
+            JsonNode body = response.getJson();
             List<JsonNode> actualValues = JsonPathResolver.resolve(body, path);
 
             if (actualValues.isEmpty()) {
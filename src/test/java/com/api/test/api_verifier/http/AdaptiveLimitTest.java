@@ -0,0 +1,86 @@
+package com.api.test.api_verifier.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static void window(AdaptiveLimit limit, long latencyNanos, int inFlight) {
+        for (int i = 0; i < 32; i++)
+            limit.onSuccess(latencyNanos, inFlight);
+    }
+
+    @Test
+    void startsAtTheCeilingAndBacksOffOnOverload() {
+        AdaptiveLimit limit = new AdaptiveLimit(10);
+        assertEquals(10, limit.current());
+
+        limit.onOverload("429", 0);
+        assertEquals(7, limit.current());
+    }
+
+    @Test
+    void ignoresOverloadsWithinOneLatencyOfTheLastDecrease() {
+        AdaptiveLimit limit = new AdaptiveLimit(10);
+
+        limit.onOverload("503", 0);
+        limit.onOverload("503", TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(7, limit.current());
+    }
+
+    @Test
+    void backsOffWhenTheWindowMedianDoublesTheBaseline() {
+        AdaptiveLimit limit = new AdaptiveLimit(10);
+        window(limit, MS, 10);
+        assertEquals(10, limit.current());
+
+        window(limit, 5 * MS, 10);
+        assertEquals(7, limit.current());
+    }
+
+    @Test
+    void holdsTheLimitUntilACongestedWindowRecovers() {
+        AdaptiveLimit limit = new AdaptiveLimit(10);
+        window(limit, MS, 10);
+        window(limit, 5 * MS, 10);
+
+        for (int i = 0; i < 31; i++)
+            limit.onSuccess(MS, 10);
+        assertEquals(7, limit.current());
+
+        limit.onSuccess(MS, 10);
+        for (int i = 0; i < 20; i++)
+            limit.onSuccess(MS, 10);
+        assertTrue(limit.current() >= 8);
+    }
+
+    @Test
+    void growsOnlyWhileTheLimitIsInUse() {
+        AdaptiveLimit limit = new AdaptiveLimit(10);
+        limit.onOverload("429", 0);
+
+        for (int i = 0; i < 20; i++)
+            limit.onSuccess(MS, 1);
+        assertEquals(7, limit.current());
+
+        for (int i = 0; i < 20; i++)
+            limit.onSuccess(MS, 7);
+        assertTrue(limit.current() > 7);
+    }
+
+    @Test
+    void clampsToALoweredCeiling() {
+        AdaptiveLimit limit = new AdaptiveLimit(10);
+
+        limit.setCeiling(4);
+
+        assertEquals(4, limit.current());
+    }
+}
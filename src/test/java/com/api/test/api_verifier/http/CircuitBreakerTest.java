@@ -0,0 +1,90 @@
+package com.api.test.api_verifier.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static CircuitBreaker opened(long cooldownMs) {
+        CircuitBreaker breaker = new CircuitBreaker("http://a", 2, cooldownMs, 1);
+        breaker.onFailure("refused");
+        assertTrue(breaker.onFailure("refused"));
+        return breaker;
+    }
+
+    @Test
+    void admitsRequestsWhileClosed() {
+        CircuitBreaker breaker = new CircuitBreaker("http://a", 2, 1000, 1);
+
+        assertEquals(CircuitBreaker.NOT_A_PROBE, breaker.acquire());
+        assertFalse(breaker.onFailure("refused"));
+        breaker.onSuccess();
+        assertFalse(breaker.onFailure("refused"));
+        assertEquals(CircuitBreaker.NOT_A_PROBE, breaker.acquire());
+    }
+
+    @Test
+    void rejectsDuringTheCooldown() {
+        CircuitBreaker breaker = opened(60_000);
+
+        assertEquals(CircuitBreaker.REJECTED, breaker.acquire());
+        assertTrue(breaker.isRejecting());
+        assertTrue(breaker.reason().contains("2 consecutive transport failure(s)"));
+    }
+
+    @Test
+    void admitsOneProbeAfterTheCooldownAndClosesOnSuccess() throws Exception {
+        CircuitBreaker breaker = opened(20);
+        Thread.sleep(40);
+
+        long probe = breaker.acquire();
+        assertTrue(probe > CircuitBreaker.NOT_A_PROBE);
+        assertEquals(CircuitBreaker.REJECTED, breaker.acquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.NOT_A_PROBE, breaker.acquire());
+        assertEquals("CLOSED", breaker.snapshot().get("state"));
+    }
+
+    @Test
+    void reopensWhenTheProbeFails() throws Exception {
+        CircuitBreaker breaker = opened(20);
+        Thread.sleep(40);
+
+        breaker.acquire();
+        assertTrue(breaker.onFailure("timeout"));
+
+        assertEquals(CircuitBreaker.REJECTED, breaker.acquire());
+        assertEquals(2, breaker.snapshot().get("timesOpened"));
+    }
+
+    @Test
+    void releasingAProbeFreesItsSlot() throws Exception {
+        CircuitBreaker breaker = opened(20);
+        Thread.sleep(40);
+
+        long probe = breaker.acquire();
+        breaker.releaseProbe(probe);
+
+        assertEquals(probe, breaker.acquire());
+    }
+
+    @Test
+    void ignoresProbesReleasedFromAnEarlierEpoch() throws Exception {
+        CircuitBreaker breaker = opened(20);
+        Thread.sleep(40);
+        long stale = breaker.acquire();
+        breaker.onFailure("timeout");
+        Thread.sleep(40);
+
+        long current = breaker.acquire();
+        assertNotEquals(stale, current);
+        breaker.releaseProbe(stale);
+
+        assertEquals(CircuitBreaker.REJECTED, breaker.acquire());
+    }
+}
@@ -0,0 +1,109 @@
+package com.api.test.api_verifier.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostLimiterTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void stopTimer() {
+        timer.shutdownNow();
+    }
+
+    private static List<CompletableFuture<Void>> acquire(HostLimiter limiter, int n) {
+        List<CompletableFuture<Void>> permits = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+            permits.add(limiter.acquire());
+        return permits;
+    }
+
+    @Test
+    void grantsPermitsUpToTheInFlightLimit() {
+        HostLimiter limiter = new HostLimiter("http://a", 2, 0, false, timer);
+
+        List<CompletableFuture<Void>> permits = acquire(limiter, 3);
+
+        assertTrue(permits.get(0).isDone());
+        assertTrue(permits.get(1).isDone());
+        assertFalse(permits.get(2).isDone());
+        limiter.release();
+        assertTrue(permits.get(2).isDone());
+        assertEquals(2, limiter.snapshot(0).get("inFlight"));
+    }
+
+    @Test
+    void spacesPermitsByTheRequestRate() throws Exception {
+        HostLimiter limiter = new HostLimiter("http://a", 100, 5, false, timer);
+
+        List<CompletableFuture<Void>> permits = acquire(limiter, 6);
+
+        for (int i = 0; i < 5; i++)
+            assertTrue(permits.get(i).isDone());
+        assertFalse(permits.get(5).isDone());
+        permits.get(5).get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void skipsWaitersThatWereCompletedElsewhere() {
+        HostLimiter limiter = new HostLimiter("http://a", 1, 0, false, timer);
+        List<CompletableFuture<Void>> permits = acquire(limiter, 3);
+
+        permits.get(1).completeExceptionally(new IllegalStateException("cancelled"));
+        limiter.release();
+
+        assertTrue(permits.get(2).isDone());
+        assertEquals(1, limiter.snapshot(0).get("inFlight"));
+        assertEquals(0, limiter.snapshot(0).get("queued"));
+    }
+
+    @Test
+    void rejectsQueuedWaiters() {
+        HostLimiter limiter = new HostLimiter("http://a", 1, 0, false, timer);
+        List<CompletableFuture<Void>> permits = acquire(limiter, 2);
+        RuntimeException reason = new RuntimeException("circuit open");
+
+        limiter.rejectQueued(reason);
+
+        assertTrue(permits.get(0).isDone() && !permits.get(0).isCompletedExceptionally());
+        assertSame(reason, assertThrows(CompletionException.class, permits.get(1)::join).getCause());
+    }
+
+    @Test
+    void pausesAfterRetryAfter() throws Exception {
+        HostLimiter limiter = new HostLimiter("http://a", 4, 0, false, timer);
+        limiter.acquire();
+        limiter.onResponse(429, 0, TimeUnit.MILLISECONDS.toNanos(100));
+        limiter.release();
+
+        long start = System.nanoTime();
+        limiter.acquire().get(2, TimeUnit.SECONDS);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(80));
+    }
+
+    @Test
+    void lowersTheAdaptiveLimitOnOverload() {
+        HostLimiter limiter = new HostLimiter("http://a", 10, 0, true, timer);
+
+        limiter.onResponse(503, 0, 0);
+
+        assertEquals(7, limiter.snapshot(0).get("currentLimit"));
+        assertEquals(10, limiter.snapshot(0).get("maxInFlight"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.api.test.api_verifier.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaceholderInputStreamTest {
+
+    private static String substitute(String template, Map<String, ?> vars) throws IOException {
+        try (InputStream in = new PlaceholderInputStream(
+                new ByteArrayInputStream(template.getBytes(StandardCharsets.UTF_8)), vars)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String substituteByteByByte(String template, Map<String, ?> vars) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new PlaceholderInputStream(
+                new ByteArrayInputStream(template.getBytes(StandardCharsets.UTF_8)), vars)) {
+            int b;
+            while ((b = in.read()) != -1)
+                out.write(b);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void replacesKnownPlaceholders() throws IOException {
+        assertEquals("{\"user\":\"42\",\"org\":\"ü\"}",
+                substitute("{\"user\":\"{userId}\",\"org\":\"{org}\"}", Map.of("userId", 42, "org", "ü")));
+    }
+
+    @Test
+    void leavesUnknownAndMalformedPlaceholdersAlone() throws IOException {
+        String template = "{missing} {} {not closed {a b} {{userId}}";
+
+        assertEquals("{missing} {} {not closed {a b} {7}", substitute(template, Map.of("userId", 7)));
+    }
+
+    @Test
+    void handlesPlaceholdersAtTheEndOfTheStream() throws IOException {
+        assertEquals("id=7", substitute("id={userId}", Map.of("userId", 7)));
+        assertEquals("id={user", substitute("id={user", Map.of("userId", 7)));
+    }
+
+    @Test
+    void singleByteReadsMatchBulkReads() throws IOException {
+        String template = "{\"a\":\"{x}\",\"b\":[{y},{y}],\"c\":\"{z}\"}";
+        Map<String, ?> vars = Map.of("x", "1", "y", "two");
+
+        assertEquals(substitute(template, vars), substituteByteByByte(template, vars));
+    }
+}
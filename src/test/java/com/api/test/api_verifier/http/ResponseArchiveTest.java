@@ -0,0 +1,100 @@
+package com.api.test.api_verifier.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseArchiveTest {
+
+    @TempDir
+    Path dir;
+
+    private static TransportRequest request(String path, RequestBody body) {
+        return new TransportRequest(URI.create("http://a" + path), body != null ? "POST" : "GET",
+                Map.of("Cookie", "session=1"), body, 1000, 0);
+    }
+
+    private static TransportResponse response(int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return new TransportResponse(status, Map.of("Content-Type", List.of("application/json")),
+                new CappedBody(List.of(ByteBuffer.wrap(bytes)), bytes.length, 0, false),
+                new TransportTiming(3_000_000, 5_000_000));
+    }
+
+    @Test
+    void replaysRecordedResponsesAndFailures() throws IOException {
+        Path file = ResponseArchive.file(dir, "run_1");
+        try (ArchiveWriter writer = new ArchiveWriter(file)) {
+            writer.record(request("/users", null), response(200, "{\"n\":1}"));
+            writer.record(request("/users", null), response(200, "{\"n\":2}"));
+            writer.recordFailure(request("/down", null), new IOException("Connection refused"));
+        }
+
+        try (ReplayTransport replay = new ReplayTransport(file)) {
+            TransportResponse first = replay.send(request("/users", null)).join();
+            TransportResponse second = replay.send(request("/users", null)).join();
+            TransportResponse third = replay.send(request("/users", null)).join();
+
+            assertEquals(200, first.getStatusCode());
+            assertEquals("{\"n\":1}", first.getBody().preview(100));
+            assertEquals("{\"n\":2}", second.getBody().preview(100));
+            assertEquals("{\"n\":2}", third.getBody().preview(100));
+            assertEquals("application/json", first.firstHeader("Content-Type"));
+            assertEquals(3_000_000, first.getTiming().getFirstByteNanos());
+            assertTrue(replay.send(request("/down", null)).isCompletedExceptionally());
+            assertTrue(replay.send(request("/unknown", null)).isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    void keysFileBodiesByTheirContent() throws IOException {
+        Path payload = dir.resolve("body.json");
+        Files.writeString(payload, "{\"id\":\"{id}\"}");
+
+        String one = ResponseArchive.key(request("/u", RequestBody.ofTemplateFile(payload, Map.of("id", 1))));
+        String two = ResponseArchive.key(request("/u", RequestBody.ofTemplateFile(payload, Map.of("id", 2))));
+        String again = ResponseArchive.key(request("/u", RequestBody.ofTemplateFile(payload, Map.of("id", 1))));
+
+        assertNotEquals(one, two);
+        assertEquals(one, again);
+    }
+
+    @Test
+    void rejectsFilesThatAreNotArchives() throws IOException {
+        Path file = dir.resolve("bogus.tqa");
+        Files.write(file, new byte[]{1, 2, 3});
+
+        assertThrows(IOException.class, () -> ResponseArchive.read(file, (key, response, failure) -> {
+        }));
+    }
+
+    @Test
+    void findsTheMostRecentArchive() throws IOException {
+        assertNull(ResponseArchive.latest(dir.resolve("missing")));
+
+        List<Path> written = new ArrayList<>();
+        for (String run : List.of("run_1", "run_2")) {
+            Path file = ResponseArchive.file(dir, run);
+            new ArchiveWriter(file).close();
+            written.add(file);
+        }
+        assertTrue(written.get(1).toFile().setLastModified(System.currentTimeMillis() + 10_000));
+
+        assertEquals(written.get(1), ResponseArchive.latest(dir));
+    }
+}
@@ -0,0 +1,120 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.http.CappedBody;
+import com.api.test.api_verifier.http.TransportResponse;
+import com.api.test.api_verifier.http.TransportTiming;
+import com.api.test.api_verifier.validator.Validator;
+import com.api.test.api_verifier.validator.ValidatorFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiResponseTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String BODY = "{\"data\":[{\"id\":1,\"name\":\"alpha\"},{\"id\":2,\"name\":\"beta\"}],\"total\":2}";
+
+    private static final class CountingBody extends CappedBody {
+        private int opened;
+
+        private CountingBody(byte[] bytes, long limit) {
+            super(List.of(ByteBuffer.wrap(bytes)), bytes.length, limit, false);
+        }
+
+        @Override
+        public InputStream openStream() {
+            opened++;
+            return super.openStream();
+        }
+    }
+
+    private static ApiCaller.ApiResponse response(CappedBody body, String encoding) {
+        Map<String, List<String>> headers = encoding == null ? Map.of()
+                : Map.of("Content-Encoding", List.of(encoding));
+        return new ApiCaller.ApiResponse(new TransportResponse(200, headers, body, new TransportTiming(0, 0)));
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static void runEveryValidator(ApiCaller.ApiResponse response) throws IOException {
+        List<String> checks = List.of(
+                "{\"type\":\"keyPresence\",\"path\":\"$.total\"}",
+                "{\"type\":\"fieldExistence\",\"path\":\"$.data\",\"fields\":[\"id\",\"name\"]}",
+                "{\"type\":\"patternMatch\",\"path\":\"$.data[*].name\",\"pattern\":\"^[a-z]+$\"}",
+                "{\"type\":\"valueMatch\",\"path\":\"$.total\",\"operator\":\"==\",\"expected\":2}",
+                "{\"type\":\"valueMatch\",\"path\":\"$.data[0].id\",\"operator\":\">\",\"expected\":0}");
+        for (String check : checks) {
+            JsonNode checkNode = MAPPER.readTree(check);
+            Validator validator = ValidatorFactory.getValidator(checkNode.path("type").asText());
+            assertTrue(validator.validate(response, checkNode), check);
+        }
+    }
+
+    @Test
+    void parsesAPlainBodyOnceForEveryValidator() throws IOException {
+        CountingBody body = new CountingBody(BODY.getBytes(StandardCharsets.UTF_8), 0);
+        ApiCaller.ApiResponse response = response(body, null);
+
+        runEveryValidator(response);
+        JsonNode first = response.getJson();
+
+        assertEquals(1, body.opened);
+        assertSame(first, response.getJson());
+        assertEquals(BODY.length(), response.getBodySize());
+    }
+
+    @Test
+    void decodesAndParsesACompressedBodyOnce() throws IOException {
+        CountingBody body = new CountingBody(gzip(BODY), 0);
+        ApiCaller.ApiResponse response = response(body, "gzip");
+
+        assertEquals(ApiCaller.Outcome.OK, response.getOutcome());
+        assertEquals(BODY.length(), response.getBodySize());
+        assertEquals(BODY, response.getResponseBody());
+        runEveryValidator(response);
+
+        assertEquals(1, body.opened);
+        assertSame(response.getJson(), response.getJson());
+    }
+
+    @Test
+    void remembersAParseFailure() {
+        CountingBody body = new CountingBody("not json".getBytes(StandardCharsets.UTF_8), 0);
+        ApiCaller.ApiResponse response = response(body, null);
+
+        assertThrows(IOException.class, response::getJson);
+        assertThrows(IOException.class, response::getJson);
+        assertEquals(1, body.opened);
+        assertEquals("not json", response.getResponseBody());
+    }
+
+    @Test
+    void reportsADecodedBodyOverTheLimitAsOversized() throws IOException {
+        CountingBody body = new CountingBody(gzip(BODY), 16);
+        ApiCaller.ApiResponse response = response(body, "gzip");
+
+        assertTrue(response.isOversized());
+        assertThrows(IOException.class, response::getJson);
+        assertEquals(1, body.opened);
+    }
+}
@@ -0,0 +1,102 @@
+package com.api.test.api_verifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DagSchedulerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<Integer> ran = new ArrayList<>();
+    private final Map<Integer, String> skipped = new ConcurrentHashMap<>();
+
+    private static TestGraph graph(String json) throws Exception {
+        List<JsonNode> tests = new ArrayList<>();
+        MAPPER.readTree(json).forEach(tests::add);
+        return TestGraph.compile(tests);
+    }
+
+    private void run(TestGraph graph, Set<Integer> failing) throws Exception {
+        DagScheduler.run(graph, index -> {
+            synchronized (ran) {
+                ran.add(graph.id(index));
+            }
+            return CompletableFuture.completedFuture(
+                    failing.contains(graph.id(index)) ? TestStatus.FAILED : TestStatus.PASSED);
+        }, (index, reason) -> skipped.put(graph.id(index), reason)).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void skipsEveryTestInOrBehindACycle() throws Exception {
+        TestGraph graph = graph("[{\"id\":1,\"parentId\":2},{\"id\":2,\"parentId\":1},"
+                + "{\"id\":3,\"parentId\":2},{\"id\":4}]");
+
+        run(graph, Set.of());
+
+        assertEquals(List.of(4), ran);
+        assertEquals(Set.of(1, 2, 3), skipped.keySet());
+        assertTrue(skipped.get(1).contains("dependency cycle"));
+        assertTrue(skipped.get(3).contains("dependency cycle"));
+    }
+
+    @Test
+    void skipsTestsWithAMissingParentAndTheirChildren() throws Exception {
+        TestGraph graph = graph("[{\"id\":1},{\"id\":2,\"parentId\":99},{\"id\":3,\"parentId\":2}]");
+
+        run(graph, Set.of());
+
+        assertEquals(List.of(1), ran);
+        assertEquals("Skipped because parent testcase 99 does not exist", skipped.get(2));
+        assertEquals("Skipped because Parent testcase skipped", skipped.get(3));
+    }
+
+    @Test
+    void propagatesAFailureAsSkipsThroughDescendantsOnly() throws Exception {
+        TestGraph graph = graph("[{\"id\":1},{\"id\":2,\"parentId\":1},{\"id\":3,\"parentId\":2},"
+                + "{\"id\":4},{\"id\":5,\"parentId\":[1,4]},{\"id\":6,\"parentId\":4}]");
+
+        run(graph, Set.of(1));
+
+        assertEquals(Set.of(1, 4, 6), Set.copyOf(ran));
+        assertEquals("Skipped because one of the parent testcase failed", skipped.get(2));
+        assertEquals("Skipped because Parent testcase skipped", skipped.get(3));
+        assertEquals("Skipped because one of the parent testcase failed", skipped.get(5));
+        assertEquals(3, skipped.size());
+    }
+
+    @Test
+    void usesTheCancelReasonOnceTheRunIsCancelled() throws Exception {
+        TestGraph graph = graph("[{\"id\":1},{\"id\":2,\"parentId\":1}]");
+
+        DagScheduler.run(graph, index -> CompletableFuture.completedFuture(TestStatus.SKIPPED),
+                (index, reason) -> skipped.put(graph.id(index), reason),
+                () -> "Skipped because the run was cancelled").get(5, TimeUnit.SECONDS);
+
+        assertEquals("Skipped because the run was cancelled", skipped.get(2));
+    }
+
+    @Test
+    void startsReadyTestsInPriorityOrder() throws Exception {
+        TestGraph graph = graph("[{\"id\":1},{\"id\":2},{\"id\":3}]");
+
+        DagScheduler.run(graph, index -> {
+            ran.add(graph.id(index));
+            return CompletableFuture.completedFuture(TestStatus.PASSED);
+        }, (index, reason) -> skipped.put(graph.id(index), reason), () -> null, new long[]{5, 30, 10})
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(2, 3, 1), ran);
+    }
+}
@@ -0,0 +1,169 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.mock.MockConfig;
+import com.api.test.api_verifier.mock.MockRoute;
+import com.api.test.api_verifier.mock.MockServer;
+import com.api.test.api_verifier.model.ApiResult;
+import com.api.test.api_verifier.model.RunOptions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExecutionModeBenchmark {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String SUITE = """
+            [
+              {"id": 1, "endpoint": "/users", "checks": [{"type": "keyPresence", "path": "$.data"}]},
+              {"id": 2, "parentId": 1, "endpoint": "/users/1",
+               "checks": [{"type": "valueMatch", "path": "$.data[0].id", "operator": "==", "expected": 1}]},
+              {"id": 3, "parentId": 1, "endpoint": "/orders",
+               "checks": [{"type": "fieldExistence", "path": "$.data", "fields": ["id", "name"]}]},
+              {"id": 4, "parentId": 2, "endpoint": "/users/1/roles",
+               "checks": [{"type": "patternMatch", "path": "$.data[*].name", "pattern": "^[a-z]+$"}]},
+              {"id": 5, "parentId": 3, "endpoint": "/orders/1", "checks": [{"type": "keyPresence", "path": "$.total"}]},
+              {"id": 6, "parentId": 4, "endpoint": "/audit", "checks": [{"type": "keyPresence", "path": "$.total"}]}
+            ]""";
+
+    private static final class Result {
+        private final RunOptions.ExecutionMode mode;
+        private final long wallMs;
+        private final long tests;
+        private final long failed;
+        private final long peakHeapBytes;
+        private final int peakThreads;
+
+        private Result(RunOptions.ExecutionMode mode, long wallMs, long tests, long failed, long peakHeapBytes,
+                       int peakThreads) {
+            this.mode = mode;
+            this.wallMs = wallMs;
+            this.tests = tests;
+            this.failed = failed;
+            this.peakHeapBytes = peakHeapBytes;
+            this.peakThreads = peakThreads;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rows = Integer.getInteger("rows", 1000);
+        long latencyMs = Long.getLong("latencyMs", 50);
+        int maxConcurrentRequests = Integer.getInteger("maxConcurrentRequests", 256);
+        int maxConcurrentRows = Integer.getInteger("maxConcurrentRows", 16);
+
+        MockServer server = new MockServer(mockConfig(latencyMs));
+        server.start();
+        try {
+            String baseUrl = "http://localhost:" + server.getPort();
+            List<JsonNode> tests = new ArrayList<>();
+            JSON.readTree(SUITE).forEach(tests::add);
+
+            System.out.printf("rows=%d tests/row=%d latencyMs=%d maxConcurrentRequests=%d maxConcurrentRows=%d%n",
+                    rows, tests.size(), latencyMs, maxConcurrentRequests, maxConcurrentRows);
+
+            run(RunOptions.ExecutionMode.PLATFORM, baseUrl, tests, Math.min(rows, 100), maxConcurrentRequests,
+                    maxConcurrentRows);
+            run(RunOptions.ExecutionMode.VIRTUAL, baseUrl, tests, Math.min(rows, 100), maxConcurrentRequests,
+                    maxConcurrentRows);
+
+            List<Result> results = new ArrayList<>();
+            for (RunOptions.ExecutionMode mode : RunOptions.ExecutionMode.values())
+                results.add(run(mode, baseUrl, tests, rows, maxConcurrentRequests, maxConcurrentRows));
+
+            System.out.printf("%-9s %9s %8s %11s %7s %13s %16s%n",
+                    "mode", "wall ms", "tests", "tests/sec", "failed", "peak heap MB", "platform threads");
+            for (Result r : results)
+                System.out.printf("%-9s %9d %8d %11.1f %7d %13.1f %16d%n", r.mode, r.wallMs, r.tests,
+                        r.tests * 1000.0 / Math.max(1, r.wallMs), r.failed, r.peakHeapBytes / (1024.0 * 1024.0),
+                        r.peakThreads);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static MockConfig mockConfig(long latencyMs) {
+        MockRoute.Latency latency = new MockRoute.Latency();
+        latency.setMs(latencyMs);
+
+        MockRoute route = new MockRoute();
+        route.setBody(JSON.valueToTree(Map.of(
+                "data", List.of(Map.of("id", 1, "name", "alpha"), Map.of("id", 2, "name", "beta")),
+                "total", 2)));
+        route.setLatency(latency);
+
+        MockConfig config = new MockConfig();
+        config.setPort(0);
+        config.setRoutes(List.of(route));
+        return config;
+    }
+
+    private static Result run(RunOptions.ExecutionMode mode, String baseUrl, List<JsonNode> tests, int rows,
+                              int maxConcurrentRequests, int maxConcurrentRows) throws Exception {
+        ApiCaller apiCaller = new ApiCaller(maxConcurrentRequests, 0, false, 16 * 1024 * 1024, 10_000, 30_000,
+                32, 256, 30, 1_000_000, 30_000, 1, System.getProperty("java.io.tmpdir"));
+        RunScheduler scheduler = new RunScheduler(maxConcurrentRequests, maxConcurrentRows);
+        TestExecutor executor = new TestExecutor(apiCaller, scheduler);
+
+        RunOptions options = new RunOptions();
+        options.setExecutionMode(mode);
+        options.setMaxConcurrentRequests(maxConcurrentRequests);
+        options.setCoalesceGets(false);
+        options.setCachePrechecks(false);
+        options.validate();
+
+        TestPlan plan = executor.compilePlan(tests, options.getRetry());
+        CriticalPath path = CriticalPath.of(plan, Map.of());
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        AtomicLong peakHeap = new AtomicLong(memory.getHeapMemoryUsage().getUsed());
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+
+        AtomicLong executed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long started = System.nanoTime();
+        try (RunContext run = scheduler.openRun("bench_" + mode + "_" + rows, options)) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                String cookieName = "account" + i;
+                RequestTemplate row = new RequestTemplate(baseUrl, "session=" + i, Map.of("cookieName", cookieName));
+                futures.add(scheduler.submitRow(run, () -> {
+                    CancelScope rowScope = run.getCancelScope().child("account row '" + cookieName + "'", 0);
+                    for (ApiResult result : executor.runSuiteChained(plan, path, row, rowScope.child("suite", 0), run)) {
+                        executed.incrementAndGet();
+                        if (result.isSkipped() || result.getSummary() == null || result.getSummary().getFailed() > 0)
+                            failed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            sampler.interrupt();
+            sampler.join();
+            scheduler.shutdown();
+            apiCaller.shutdown();
+        }
+        long wallMs = (System.nanoTime() - started) / 1_000_000;
+        return new Result(mode, wallMs, executed.get(), failed.get(), peakHeap.get(), threads.getPeakThreadCount());
+    }
+}
@@ -0,0 +1,91 @@
+package com.api.test.api_verifier.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrecheckCacheTest {
+
+    private static final String KEY = PrecheckCache.key("named:activeUser", "session=1", "http://a/");
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    private CompletableFuture<Boolean> evaluate(CompletableFuture<Boolean> result) {
+        evaluations.incrementAndGet();
+        return result;
+    }
+
+    @Test
+    void evaluatesASharedPrecheckOnce() {
+        PrecheckCache cache = new PrecheckCache(0);
+        CompletableFuture<Boolean> pending = new CompletableFuture<>();
+
+        CompletableFuture<Boolean> first = cache.get(KEY, invalidate -> evaluate(pending));
+        CompletableFuture<Boolean> second = cache.get(KEY, invalidate -> evaluate(pending));
+        pending.complete(true);
+
+        assertEquals(1, evaluations.get());
+        assertTrue(first.join());
+        assertTrue(second.join());
+        assertEquals(1L, cache.describe().get("hits"));
+    }
+
+    @Test
+    void keepsDifferentAccountsApart() {
+        PrecheckCache cache = new PrecheckCache(0);
+
+        cache.get(KEY, invalidate -> evaluate(CompletableFuture.completedFuture(true)));
+        cache.get(PrecheckCache.key("named:activeUser", "session=2", "http://a/"),
+                invalidate -> evaluate(CompletableFuture.completedFuture(false)));
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    void forgetsFailedEvaluations() {
+        PrecheckCache cache = new PrecheckCache(0);
+
+        CompletableFuture<Boolean> failed = cache.get(KEY,
+                invalidate -> evaluate(CompletableFuture.failedFuture(new IllegalStateException("boom"))));
+        assertThrows(CompletionException.class, failed::join);
+        cache.get(KEY, invalidate -> evaluate(CompletableFuture.completedFuture(true)));
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    void reevaluatesAfterTheTtl() throws Exception {
+        PrecheckCache cache = new PrecheckCache(20);
+
+        cache.get(KEY, invalidate -> evaluate(CompletableFuture.completedFuture(true)));
+        Thread.sleep(40);
+        cache.get(KEY, invalidate -> evaluate(CompletableFuture.completedFuture(false)));
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    void invalidatingAnOldEntryLeavesItsReplacement() throws Exception {
+        PrecheckCache cache = new PrecheckCache(20);
+        AtomicReference<Runnable> stale = new AtomicReference<>();
+
+        cache.get(KEY, invalidate -> {
+            stale.set(invalidate);
+            return evaluate(CompletableFuture.completedFuture(true));
+        });
+        Thread.sleep(40);
+        cache.get(KEY, invalidate -> evaluate(CompletableFuture.completedFuture(false)));
+        stale.get().run();
+
+        assertFalse(cache.get(KEY, invalidate -> evaluate(CompletableFuture.completedFuture(true))).join());
+        assertEquals(2, evaluations.get());
+    }
+}
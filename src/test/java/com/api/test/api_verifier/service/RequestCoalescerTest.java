@@ -0,0 +1,106 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.http.RequestBody;
+import com.api.test.api_verifier.model.RunOptions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private static ApiCaller.ApiRequest get(String url) {
+        return new ApiCaller.ApiRequest(url, "GET", "session=1", Map.of("Accept", "application/json"));
+    }
+
+    private CompletableFuture<ApiCaller.ApiResponse> pending(CompletableFuture<ApiCaller.ApiResponse> response) {
+        calls.incrementAndGet();
+        return response;
+    }
+
+    @Test
+    void sharesOneExchangeBetweenConcurrentCallers() {
+        RequestCoalescer coalescer = new RequestCoalescer(false);
+        CompletableFuture<ApiCaller.ApiResponse> exchange = new CompletableFuture<>();
+        String key = RequestCoalescer.key(get("http://a/users"));
+
+        CompletableFuture<ApiCaller.ApiResponse> first = coalescer.execute(key, () -> pending(exchange));
+        CompletableFuture<ApiCaller.ApiResponse> second = coalescer.execute(key, () -> pending(exchange));
+        ApiCaller.ApiResponse response = new ApiCaller.ApiResponse(200, "{}");
+        exchange.complete(response);
+
+        assertEquals(1, calls.get());
+        assertSame(response, first.join());
+        assertSame(response, second.join());
+        assertEquals(1L, coalescer.describe().get("hits"));
+    }
+
+    @Test
+    void sendsAgainOnceTheSharedExchangeFinishes() {
+        RequestCoalescer coalescer = new RequestCoalescer(false);
+        String key = RequestCoalescer.key(get("http://a/users"));
+        ApiCaller.ApiResponse ok = new ApiCaller.ApiResponse(200, "{}");
+
+        coalescer.execute(key, () -> pending(CompletableFuture.completedFuture(ok))).join();
+        coalescer.execute(key, () -> pending(CompletableFuture.completedFuture(ok))).join();
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void memoizesSuccessfulResponsesButNotFailures() {
+        RequestCoalescer coalescer = new RequestCoalescer(true);
+        String key = RequestCoalescer.key(get("http://a/users"));
+        ApiCaller.ApiResponse failed = new ApiCaller.ApiResponse(ApiCaller.Outcome.ERROR, 0, "Error: refused");
+        ApiCaller.ApiResponse ok = new ApiCaller.ApiResponse(200, "{}");
+
+        coalescer.execute(key, () -> pending(CompletableFuture.completedFuture(failed))).join();
+        coalescer.execute(key, () -> pending(CompletableFuture.completedFuture(ok))).join();
+        ApiCaller.ApiResponse memoized = coalescer.execute(key,
+                () -> pending(CompletableFuture.completedFuture(failed))).join();
+
+        assertEquals(2, calls.get());
+        assertSame(ok, memoized);
+    }
+
+    @Test
+    void keysDifferWhenRequestLimitsDiffer() {
+        ApiCaller.ApiRequest base = get("http://a/users");
+
+        ApiCaller.ApiRequest capped = get("http://a/users");
+        capped.setMaxResponseBytes(1024);
+        ApiCaller.ApiRequest slow = get("http://a/users");
+        slow.setTimeoutMs(60_000);
+        ApiCaller.ApiRequest compressed = get("http://a/users");
+        compressed.setCompression(true);
+        ApiCaller.ApiRequest apache = get("http://a/users");
+        apache.setTransport(RunOptions.Transport.APACHE);
+
+        String key = RequestCoalescer.key(base);
+        assertEquals(key, RequestCoalescer.key(get("http://a/users")));
+        assertNotEquals(key, RequestCoalescer.key(capped));
+        assertNotEquals(key, RequestCoalescer.key(slow));
+        assertNotEquals(key, RequestCoalescer.key(compressed));
+        assertNotEquals(key, RequestCoalescer.key(apache));
+    }
+
+    @Test
+    void onlyCoalescesBodylessGets() {
+        ApiCaller.ApiRequest post = new ApiCaller.ApiRequest("http://a/users", "POST", null, Map.of());
+        ApiCaller.ApiRequest getWithBody = get("http://a/users");
+        getWithBody.setBody(RequestBody.ofString("{}"));
+
+        assertTrue(RequestCoalescer.isCoalescable(get("http://a/users")));
+        assertFalse(RequestCoalescer.isCoalescable(post));
+        assertFalse(RequestCoalescer.isCoalescable(getWithBody));
+    }
+}
@@ -0,0 +1,141 @@
+package com.api.test.api_verifier.service;
+
+import com.api.test.api_verifier.model.RunOptions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunSchedulerTest {
+
+    private final RunScheduler scheduler = new RunScheduler(1, 1);
+    private final List<String> started = new ArrayList<>();
+    private final List<CompletableFuture<String>> pending = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private Supplier<CompletableFuture<String>> work(String name) {
+        return () -> {
+            started.add(name);
+            CompletableFuture<String> f = new CompletableFuture<>();
+            pending.add(f);
+            return f;
+        };
+    }
+
+    private void completeNext() {
+        CompletableFuture<String> next = pending.stream().filter(f -> !f.isDone()).findFirst().orElseThrow();
+        next.complete("done");
+    }
+
+    private static Throwable cause(CompletableFuture<?> f) {
+        return assertThrows(CompletionException.class, f::join).getCause();
+    }
+
+    @Test
+    void alternatesBetweenLanesWhenSlotsAreScarce() {
+        RunContext run = scheduler.openRun("fair", new RunOptions());
+        for (int i = 1; i <= 3; i++)
+            scheduler.submit(run, "a", work("a" + i));
+        for (int i = 1; i <= 3; i++)
+            scheduler.submit(run, "b", work("b" + i));
+
+        for (int i = 0; i < 5; i++)
+            completeNext();
+
+        assertEquals(List.of("a1", "a2", "b1", "a3", "b2", "b3"), started);
+    }
+
+    @Test
+    void startsHigherPriorityTasksFirstWithinALane() {
+        RunContext run = scheduler.openRun("priority", new RunOptions());
+        scheduler.submit(run, "a", null, 0, work("first"));
+        scheduler.submit(run, "a", null, 1, work("low"));
+        scheduler.submit(run, "a", null, 9, work("high"));
+
+        completeNext();
+        completeNext();
+
+        assertEquals(List.of("first", "high", "low"), started);
+    }
+
+    @Test
+    void failsQueuedTasksWhenTheirScopeIsCancelled() {
+        RunContext run = scheduler.openRun("cancel", new RunOptions());
+        CancelScope row = run.getCancelScope().child("row", 0);
+        scheduler.submit(run, "a", work("running"));
+        CompletableFuture<String> queued = scheduler.submit(run, "a", row, work("queued"));
+
+        row.cancel("the row was stopped");
+
+        assertTrue(cause(queued) instanceof RunCancelledException);
+        completeNext();
+        assertEquals(List.of("running"), started);
+    }
+
+    @Test
+    void rejectsSubmissionsToACancelledScope() {
+        RunContext run = scheduler.openRun("cancelled", new RunOptions());
+        run.cancel("stop");
+
+        CompletableFuture<String> result = scheduler.submit(run, "a", work("never"));
+
+        assertTrue(cause(result) instanceof RunCancelledException);
+        assertTrue(started.isEmpty());
+    }
+
+    @Test
+    void expiresQueuedTasksOnceTheDeadlinePasses() throws Exception {
+        RunOptions options = new RunOptions();
+        options.setDeadlineMs(50);
+        options.setDeadlineMarginMs(0);
+        RunContext run = scheduler.openRun("deadline", options);
+        scheduler.submit(run, "a", work("running"));
+        CompletableFuture<String> queued = scheduler.submit(run, "a", work("queued"));
+
+        Thread.sleep(80);
+        completeNext();
+
+        assertTrue(cause(queued) instanceof RunDeadlineExceededException);
+        assertTrue(cause(scheduler.submit(run, "a", work("late"))) instanceof RunDeadlineExceededException);
+        assertEquals(List.of("running"), started);
+    }
+
+    @Test
+    void keepsOneRunsLimitFromBlockingAnotherRun() {
+        RunScheduler wide = new RunScheduler(4, 1);
+        try {
+            RunOptions narrow = new RunOptions();
+            narrow.setMaxConcurrentRequests(1);
+            RunContext limited = wide.openRun("limited", narrow);
+            RunContext other = wide.openRun("other", new RunOptions());
+            AtomicBoolean secondStarted = new AtomicBoolean();
+
+            wide.submit(limited, "a", () -> new CompletableFuture<String>());
+            wide.submit(limited, "a", () -> {
+                secondStarted.set(true);
+                return CompletableFuture.completedFuture("x");
+            });
+            CompletableFuture<String> unrelated = wide.submit(other, "a",
+                    () -> CompletableFuture.completedFuture("ok"));
+
+            assertEquals("ok", unrelated.join());
+            assertFalse(secondStarted.get());
+        } finally {
+            wide.shutdown();
+        }
+    }
+}
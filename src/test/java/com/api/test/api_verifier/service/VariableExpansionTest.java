@@ -0,0 +1,78 @@
+package com.api.test.api_verifier.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VariableExpansionTest {
+
+    private static List<String> render(VariableExpansion expansion, String... names) {
+        List<String> out = new ArrayList<>();
+        for (Map<String, Object> vars : expansion) {
+            StringBuilder sb = new StringBuilder();
+            for (String name : names)
+                sb.append(name).append('=').append(vars.get(name)).append(' ');
+            out.add(sb.toString().trim());
+        }
+        return out;
+    }
+
+    @Test
+    void yieldsTheScalarsOnceWhenThereAreNoLists() {
+        Map<String, Object> vars = new LinkedHashMap<>();
+        vars.put("user", "42");
+
+        VariableExpansion expansion = VariableExpansion.of(vars);
+
+        assertEquals(1, expansion.size());
+        assertFalse(expansion.isMultiple());
+        assertEquals(List.of("user=42"), render(expansion, "user"));
+    }
+
+    @Test
+    void expandsListsAsACartesianProduct() {
+        Map<String, Object> vars = new LinkedHashMap<>();
+        vars.put("org", List.of("a", "b"));
+        vars.put("user", "42");
+        vars.put("id", List.of(1, 2, 3));
+
+        VariableExpansion expansion = VariableExpansion.of(vars);
+
+        assertEquals(6, expansion.size());
+        assertTrue(expansion.isMultiple());
+        assertEquals(List.of(
+                "org=a id=1 user=42", "org=a id=2 user=42", "org=a id=3 user=42",
+                "org=b id=1 user=42", "org=b id=2 user=42", "org=b id=3 user=42"),
+                render(expansion, "org", "id", "user"));
+    }
+
+    @Test
+    void yieldsNothingWhenAnyListIsEmpty() {
+        Map<String, Object> vars = new LinkedHashMap<>();
+        vars.put("org", List.of("a", "b"));
+        vars.put("id", List.of());
+
+        VariableExpansion expansion = VariableExpansion.of(vars);
+
+        assertEquals(0, expansion.size());
+        assertFalse(expansion.iterator().hasNext());
+    }
+
+    @Test
+    void bindingsExposeEveryVariable() {
+        Map<String, Object> vars = new LinkedHashMap<>();
+        vars.put("org", List.of("a"));
+        vars.put("user", "42");
+
+        Map<String, Object> binding = VariableExpansion.of(vars).iterator().next();
+
+        assertEquals(Map.of("org", "a", "user", "42"), Map.copyOf(binding));
+    }
+}